@@ -0,0 +1,49 @@
+package jrc.demo_jwt.RateLimit;
+
+import java.util.concurrent.TimeUnit; // Unidades de tiempo para los resultados
+
+import org.openjdk.jmh.annotations.Benchmark; // Marca un método como benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode; // Modo de medición
+import org.openjdk.jmh.annotations.Fork; // Número de JVMs separadas
+import org.openjdk.jmh.annotations.Measurement; // Iteraciones de medición
+import org.openjdk.jmh.annotations.Mode; // Modos disponibles
+import org.openjdk.jmh.annotations.OutputTimeUnit; // Unidad de salida
+import org.openjdk.jmh.annotations.Param; // Parámetros del benchmark
+import org.openjdk.jmh.annotations.Scope; // Alcance del estado
+import org.openjdk.jmh.annotations.Setup; // Preparación del estado
+import org.openjdk.jmh.annotations.State; // Marca una clase como estado del benchmark
+import org.openjdk.jmh.annotations.Warmup; // Iteraciones de calentamiento
+
+// Rendimiento de RateLimiter.tryAcquire: una sola clave (un cliente que satura su cubo) o claves repartidas
+// entre muchos clientes (cada comprobación toca un cubo distinto del mapa)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    @Param({ "1", "100000" }) // Claves distintas (direcciones IP)
+    public int keys;
+
+    private RateLimiter limiter;
+    private String[] ips;
+    private int next;
+
+    @Setup
+    public void setup() {
+        limiter = new RateLimiter(30, TimeUnit.MINUTES.toNanos(1), new RateLimitProperties().getMaxKeys());
+        ips = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            ips[i] = "10." + (i >>> 16 & 0xff) + "." + (i >>> 8 & 0xff) + "." + (i & 0xff);
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        final String ip = ips[next];
+        next = next + 1 == keys ? 0 : next + 1;
+        return limiter.tryAcquire(ip, System.nanoTime());
+    }
+}
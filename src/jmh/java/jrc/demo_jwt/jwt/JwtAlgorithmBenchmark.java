@@ -0,0 +1,81 @@
+package jrc.demo_jwt.jwt;
+
+import java.security.Key; // Representa una clave criptográfica
+import java.security.KeyPair; // Par de claves asimétricas
+import java.util.Date; // Manejo de fechas
+import java.util.concurrent.TimeUnit; // Unidades de tiempo para los resultados
+
+import org.openjdk.jmh.annotations.Benchmark; // Marca un método como benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode; // Modo de medición
+import org.openjdk.jmh.annotations.Fork; // Número de JVMs separadas
+import org.openjdk.jmh.annotations.Measurement; // Iteraciones de medición
+import org.openjdk.jmh.annotations.Mode; // Modos disponibles
+import org.openjdk.jmh.annotations.OutputTimeUnit; // Unidad de salida
+import org.openjdk.jmh.annotations.Param; // Parámetros del benchmark
+import org.openjdk.jmh.annotations.Scope; // Alcance del estado
+import org.openjdk.jmh.annotations.Setup; // Preparación del estado
+import org.openjdk.jmh.annotations.State; // Marca una clase como estado del benchmark
+import org.openjdk.jmh.annotations.Warmup; // Iteraciones de calentamiento
+
+import io.jsonwebtoken.JwtParser; // Parser inmutable de JWTs
+import io.jsonwebtoken.Jwts; // Clase principal para construir y analizar JWTs
+import io.jsonwebtoken.security.Jwks; // Curvas para generar pares de claves
+import io.jsonwebtoken.security.MacAlgorithm; // Algoritmo HMAC
+import io.jsonwebtoken.security.SecureDigestAlgorithm; // Algoritmo de firma
+
+// Coste de firmar y verificar el mismo token con los algoritmos simétricos (HMAC) y con los asimétricos
+// que admite JwtKeyRing (ES256 y EdDSA con Ed25519)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAlgorithmBenchmark {
+
+    @Param({ "HS256", "HS384", "HS512", "ES256", "EdDSA" })
+    public String algorithm;
+
+    private SecureDigestAlgorithm<Key, Key> signatureAlgorithm;
+    private Key signingKey;
+    private JwtParser parser;
+    private String token;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        signatureAlgorithm = (SecureDigestAlgorithm<Key, Key>) Jwts.SIG.get().forKey(algorithm);
+        Key verificationKey;
+        switch (algorithm) {
+            case "HS256", "HS384", "HS512" -> {
+                signingKey = ((MacAlgorithm) Jwts.SIG.get().forKey(algorithm)).key().build();
+                verificationKey = signingKey;
+            }
+            default -> {
+                KeyPair keyPair = "ES256".equals(algorithm)
+                    ? Jwts.SIG.ES256.keyPair().build()
+                    : Jwks.CRV.Ed25519.keyPair().build();
+                signingKey = keyPair.getPrivate();
+                verificationKey = keyPair.getPublic();
+            }
+        }
+        parser = Jwts.parser().keyLocator(header -> verificationKey).build();
+        token = sign();
+    }
+
+    @Benchmark
+    public String sign() {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+            .subject("benchmark")
+            .issuedAt(new Date(now))
+            .expiration(new Date(now + 1000 * 60 * 24))
+            .signWith(signingKey, signatureAlgorithm)
+            .compact();
+    }
+
+    @Benchmark
+    public Object verify() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+}
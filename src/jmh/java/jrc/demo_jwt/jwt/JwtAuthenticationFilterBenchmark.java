@@ -0,0 +1,73 @@
+package jrc.demo_jwt.jwt;
+
+import java.util.concurrent.TimeUnit; // Unidades de tiempo para los resultados
+
+import org.openjdk.jmh.annotations.Benchmark; // Marca un método como benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode; // Modo de medición
+import org.openjdk.jmh.annotations.Fork; // Número de JVMs separadas
+import org.openjdk.jmh.annotations.Measurement; // Iteraciones de medición
+import org.openjdk.jmh.annotations.Mode; // Modos disponibles
+import org.openjdk.jmh.annotations.OutputTimeUnit; // Unidad de salida
+import org.openjdk.jmh.annotations.Param; // Parámetros del benchmark
+import org.openjdk.jmh.annotations.Scope; // Alcance del estado
+import org.openjdk.jmh.annotations.Setup; // Preparación del estado
+import org.openjdk.jmh.annotations.State; // Marca una clase como estado del benchmark
+import org.openjdk.jmh.annotations.Warmup; // Iteraciones de calentamiento
+import org.springframework.beans.factory.support.DefaultListableBeanFactory; // Fábrica vacía para el ObjectProvider
+import org.springframework.http.HttpHeaders; // Clase para manejar encabezados HTTP
+import org.springframework.mock.web.MockFilterChain; // Cadena de filtros simulada
+import org.springframework.mock.web.MockHttpServletRequest; // Solicitud simulada
+import org.springframework.mock.web.MockHttpServletResponse; // Respuesta simulada
+import org.springframework.security.core.context.SecurityContextHolder; // Contexto de seguridad
+import org.springframework.security.core.userdetails.UserDetails; // Representa los detalles de un usuario
+import org.springframework.security.core.userdetails.UserDetailsService; // Servicio para cargar detalles de usuario
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry; // Registro de métricas en memoria
+import jrc.demo_jwt.User.Role; // Enum que define los roles de usuario
+import jrc.demo_jwt.User.User; // Clase que representa a un usuario
+
+// Pasada completa de JwtAuthenticationFilter con objetos servlet simulados, con y sin caché de tokens
+// y en modo con o sin estado. El UserDetailsService devuelve un usuario en memoria (sin base de datos).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({ "0", "10000" }) // 0 desactiva la caché de tokens verificados
+    public long cacheSize;
+
+    @Param({ "false", "true" })
+    public boolean stateless;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setup() {
+        JwtProperties properties = new JwtProperties();
+        properties.setStateless(stateless);
+        properties.getCache().setMaximumSize(cacheSize);
+        JwtService jwtService = new JwtService(properties, new JwtKeyRing(properties), new SimpleMeterRegistry());
+        UserDetails user = User.builder().username("benchmark").password("x").role(Role.USER).build();
+        UserDetailsService userDetailsService = username -> user;
+        filter = new JwtAuthenticationFilter(jwtService, new VerifiedTokenCache(jwtService, properties, new SimpleMeterRegistry()),
+            userDetailsService, properties, new DefaultListableBeanFactory().getBeanProvider(VerifiedTokenCheck.class));
+        authorization = "Bearer " + jwtService.getToken(user);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/demo");
+        request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+        } finally {
+            SecurityContextHolder.clearContext(); // Cada iteración empieza sin autenticación
+        }
+        return response;
+    }
+}
@@ -0,0 +1,99 @@
+package jrc.demo_jwt.jwt;
+
+import java.security.PrivateKey; // Clave de firma asimétrica del camino anterior
+import java.util.Date; // Fechas del camino anterior
+import java.util.HashMap; // Claims del camino anterior
+import java.util.Map; // Interfaz para mapas
+import java.util.UUID; // "jti" del camino anterior
+import java.util.concurrent.TimeUnit; // Unidades de tiempo para los resultados
+import java.util.function.UnaryOperator; // Firma del camino anterior según el algoritmo
+
+import javax.crypto.SecretKey; // Clave HMAC del camino anterior
+
+import org.openjdk.jmh.annotations.Benchmark; // Marca un método como benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode; // Modo de medición
+import org.openjdk.jmh.annotations.Fork; // Número de JVMs separadas
+import org.openjdk.jmh.annotations.Measurement; // Iteraciones de medición
+import org.openjdk.jmh.annotations.Mode; // Modos disponibles
+import org.openjdk.jmh.annotations.OutputTimeUnit; // Unidad de salida
+import org.openjdk.jmh.annotations.Param; // Parámetros del benchmark
+import org.openjdk.jmh.annotations.Scope; // Alcance del estado
+import org.openjdk.jmh.annotations.Setup; // Preparación del estado
+import org.openjdk.jmh.annotations.State; // Marca una clase como estado del benchmark
+import org.openjdk.jmh.annotations.Warmup; // Iteraciones de calentamiento
+import org.springframework.security.core.GrantedAuthority; // Representa una autoridad otorgada a un usuario
+
+import io.jsonwebtoken.JwtBuilder; // Constructor de JWTs
+import io.jsonwebtoken.Jwts; // Clase principal para construir JWTs
+import io.jsonwebtoken.io.Decoders; // Decodificador Base64
+import io.jsonwebtoken.security.Jwks; // Curva Ed25519
+import io.jsonwebtoken.security.Keys; // Utilidad para generar claves
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry; // Registro de métricas en memoria
+import jrc.demo_jwt.User.Role; // Enum que define los roles de usuario
+import jrc.demo_jwt.User.User; // Clase que representa a un usuario
+
+// Compara la emisión de un token de acceso en modo sin estado: el camino anterior (HashMap de claims, Date,
+// UUID y jjwt, que serializa cabecera y claims con Jackson en cada token) frente a JwtService.getToken
+// (cabecera precalculada, claims escritos directamente y un Mac clonado o una Signature por firma).
+// Con -prof gc se ve además la reducción de memoria asignada por token
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtIssuanceBenchmark {
+
+    @Param({ "HS256", "ES256", "EdDSA" })
+    public String algorithm;
+
+    private JwtService jwtService;
+    private JwtProperties properties;
+    private User user;
+    private UnaryOperator<JwtBuilder> legacySigner;
+
+    @Setup
+    public void setup() {
+        properties = new JwtProperties();
+        properties.setAlgorithm(algorithm);
+        properties.setGeneratedKeys(true);
+        properties.setStateless(true);
+        jwtService = new JwtService(properties, new JwtKeyRing(properties), new SimpleMeterRegistry());
+        user = User.builder().id(42).username("benchmark").password("x").role(Role.USER).build();
+        legacySigner = switch (algorithm) {
+            case "HS256" -> {
+                final SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(properties.getSecret()));
+                yield builder -> builder.signWith(key, Jwts.SIG.HS256);
+            }
+            case "ES256" -> {
+                final PrivateKey key = Jwts.SIG.ES256.keyPair().build().getPrivate();
+                yield builder -> builder.signWith(key, Jwts.SIG.ES256);
+            }
+            default -> {
+                final PrivateKey key = Jwks.CRV.Ed25519.keyPair().build().getPrivate();
+                yield builder -> builder.signWith(key, Jwts.SIG.EdDSA);
+            }
+        };
+    }
+
+    // Camino anterior: mapa de claims, fechas y UUID nuevos, y serialización con Jackson de cabecera y claims
+    @Benchmark
+    public String legacyGetToken() {
+        final Map<String, Object> extraClaims = new HashMap<>();
+        extraClaims.put("authorities", user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        final long now = System.currentTimeMillis();
+        return legacySigner.apply(Jwts.builder()
+            .claims(extraClaims)
+            .id(UUID.randomUUID().toString())
+            .subject(user.getUsername())
+            .issuedAt(new Date(now))
+            .expiration(new Date(now + properties.getExpiration().toMillis())))
+            .compact();
+    }
+
+    // Camino actual
+    @Benchmark
+    public String getToken() {
+        return jwtService.getToken(user);
+    }
+}
@@ -0,0 +1,95 @@
+package jrc.demo_jwt.jwt;
+
+import java.time.Duration; // Vida negativa: tokens ya expirados
+import java.util.concurrent.TimeUnit; // Unidades de tiempo para los resultados
+
+import org.openjdk.jmh.annotations.Benchmark; // Marca un método como benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode; // Modo de medición
+import org.openjdk.jmh.annotations.Fork; // Número de JVMs separadas
+import org.openjdk.jmh.annotations.Measurement; // Iteraciones de medición
+import org.openjdk.jmh.annotations.Mode; // Modos disponibles
+import org.openjdk.jmh.annotations.OutputTimeUnit; // Unidad de salida
+import org.openjdk.jmh.annotations.Scope; // Alcance del estado
+import org.openjdk.jmh.annotations.Setup; // Preparación del estado
+import org.openjdk.jmh.annotations.State; // Marca una clase como estado del benchmark
+import org.openjdk.jmh.annotations.Warmup; // Iteraciones de calentamiento
+import org.springframework.beans.factory.support.DefaultListableBeanFactory; // Proveedor vacío de comprobaciones
+import org.springframework.http.HttpHeaders; // Clase para manejar encabezados HTTP
+import org.springframework.mock.web.MockFilterChain; // Cadena de filtros simulada
+import org.springframework.mock.web.MockHttpServletRequest; // Solicitud simulada
+import org.springframework.mock.web.MockHttpServletResponse; // Respuesta simulada
+import org.springframework.security.core.userdetails.UserDetails; // Representa los detalles de un usuario
+
+import io.jsonwebtoken.JwtException; // Error de verificación del JWT
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry; // Registro de métricas en memoria
+import jrc.demo_jwt.User.Role; // Enum que define los roles de usuario
+import jrc.demo_jwt.User.User; // Clase que representa a un usuario
+
+// Coste de rechazar tokens inválidos en JwtAuthenticationFilter: basura descartada por BearerTokenExtractor,
+// un token expirado (se descarta leyendo su "exp"), un token bien formado con la firma alterada (llega a jjwt) y,
+// como referencia, la basura analizada por jjwt (lo que ocurría antes de validar la forma del token)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtRejectionBenchmark {
+
+    private static final String GARBAGE = "Bearer this-is-not-a-jwt!";
+
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+    private String forged;
+    private String expired;
+
+    @Setup
+    public void setup() {
+        JwtProperties properties = new JwtProperties();
+        properties.getCache().setMaximumSize(0); // Cada rechazo pasa por la verificación completa
+        jwtService = new JwtService(properties, new JwtKeyRing(properties), new SimpleMeterRegistry());
+        UserDetails user = User.builder().username("benchmark").password("x").role(Role.USER).build();
+        filter = new JwtAuthenticationFilter(jwtService, new VerifiedTokenCache(jwtService, properties, new SimpleMeterRegistry()),
+            username -> user, properties, new DefaultListableBeanFactory().getBeanProvider(VerifiedTokenCheck.class));
+        String token = jwtService.getToken(user);
+        char last = token.charAt(token.length() - 2);
+        forged = "Bearer " + token.substring(0, token.length() - 2) + (last == 'A' ? 'B' : 'A') + token.charAt(token.length() - 1);
+        JwtProperties expiredProperties = new JwtProperties();
+        expiredProperties.setExpiration(Duration.ofMinutes(-1));
+        expired = "Bearer " + new JwtService(expiredProperties, new JwtKeyRing(expiredProperties), new SimpleMeterRegistry())
+            .getToken(user);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse malformedHeader() throws Exception {
+        return doFilter(GARBAGE);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse expiredToken() throws Exception {
+        return doFilter(expired);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse forgedSignature() throws Exception {
+        return doFilter(forged);
+    }
+
+    // Referencia: la misma basura entregada directamente al parser de jjwt
+    @Benchmark
+    public Object garbageThroughParser() {
+        try {
+            return jwtService.verify(GARBAGE.substring(7));
+        } catch (JwtException | IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    private MockHttpServletResponse doFilter(String authorization) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/demo");
+        request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,72 @@
+package jrc.demo_jwt.jwt;
+
+import java.util.List; // Lista de autoridades
+import java.util.concurrent.TimeUnit; // Unidades de tiempo para los resultados
+import java.util.stream.IntStream; // Generación de autoridades
+
+import org.openjdk.jmh.annotations.Benchmark; // Marca un método como benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode; // Modo de medición
+import org.openjdk.jmh.annotations.Fork; // Número de JVMs separadas
+import org.openjdk.jmh.annotations.Measurement; // Iteraciones de medición
+import org.openjdk.jmh.annotations.Mode; // Modos disponibles
+import org.openjdk.jmh.annotations.OutputTimeUnit; // Unidad de salida
+import org.openjdk.jmh.annotations.Param; // Parámetros del benchmark
+import org.openjdk.jmh.annotations.Scope; // Alcance del estado
+import org.openjdk.jmh.annotations.Setup; // Preparación del estado
+import org.openjdk.jmh.annotations.State; // Marca una clase como estado del benchmark
+import org.openjdk.jmh.annotations.Warmup; // Iteraciones de calentamiento
+import org.springframework.security.core.authority.SimpleGrantedAuthority; // Implementación simple de GrantedAuthority
+import org.springframework.security.core.userdetails.User; // Implementación de UserDetails de Spring Security
+import org.springframework.security.core.userdetails.UserDetails; // Representa los detalles de un usuario
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry; // Registro de métricas en memoria
+
+// Coste de emitir y verificar tokens con JwtService según el tamaño de los claims.
+// El tamaño se controla con el número de autoridades, que se incluyen en el token en modo sin estado.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    @Param({ "0", "10", "100" }) // 0: token sin claim de autoridades
+    public int authorities;
+
+    private JwtService jwtService;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setup() {
+        JwtProperties properties = new JwtProperties();
+        properties.setStateless(authorities > 0);
+        jwtService = new JwtService(properties, new JwtKeyRing(properties), new SimpleMeterRegistry());
+        List<SimpleGrantedAuthority> granted = IntStream.range(0, Math.max(1, authorities))
+            .mapToObj(i -> new SimpleGrantedAuthority("AUTHORITY_" + i))
+            .toList();
+        user = User.withUsername("benchmark").password("x").authorities(granted).build();
+        token = jwtService.getToken(user);
+    }
+
+    @Benchmark
+    public String getToken() {
+        return jwtService.getToken(user);
+    }
+
+    @Benchmark
+    public String getUsernameFromToken() {
+        return jwtService.getUsernameFromToken(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token, user);
+    }
+
+    @Benchmark
+    public VerifiedToken verify() {
+        return jwtService.verify(token);
+    }
+}
@@ -0,0 +1,73 @@
+package jrc.demo_jwt.jwt;
+
+import java.util.Date; // Manejo de fechas
+import java.util.concurrent.TimeUnit; // Unidades de tiempo para los resultados
+
+import javax.crypto.SecretKey; // Clave secreta HMAC
+
+import org.openjdk.jmh.annotations.Benchmark; // Marca un método como benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode; // Modo de medición
+import org.openjdk.jmh.annotations.Fork; // Número de JVMs separadas
+import org.openjdk.jmh.annotations.Measurement; // Iteraciones de medición
+import org.openjdk.jmh.annotations.Mode; // Modos disponibles
+import org.openjdk.jmh.annotations.OutputTimeUnit; // Unidad de salida
+import org.openjdk.jmh.annotations.Scope; // Alcance del estado
+import org.openjdk.jmh.annotations.Setup; // Preparación del estado
+import org.openjdk.jmh.annotations.State; // Marca una clase como estado del benchmark
+import org.openjdk.jmh.annotations.Warmup; // Iteraciones de calentamiento
+import org.springframework.security.core.userdetails.UserDetails; // Representa los detalles de un usuario
+
+import io.jsonwebtoken.Claims; // Representa los claims dentro de un JWT
+import io.jsonwebtoken.Jwts; // Clase principal para construir y analizar JWTs
+import io.jsonwebtoken.io.Decoders; // Decodificador Base64
+import io.jsonwebtoken.security.Keys; // Utilidad para generar claves
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry; // Registro de métricas en memoria
+import jrc.demo_jwt.User.Role; // Enum que define los roles de usuario
+import jrc.demo_jwt.User.User; // Clase que representa a un usuario
+
+// Compara la verificación de un token por solicitud: el camino anterior del filtro (tres análisis del token
+// y la clave reconstruida en cada uno) frente a JwtService.verify (un único análisis con parser precalculado)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET_KEY = "tQSx2ohpLmteo4wlHrslwTdnDMr01ZzXXNr24KicXvQAyoOghR7ITUdFrS0EvK8E";
+
+    private JwtService jwtService;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setup() {
+        JwtProperties properties = new JwtProperties();
+        jwtService = new JwtService(properties, new JwtKeyRing(properties), new SimpleMeterRegistry());
+        user = User.builder().username("benchmark").password("x").role(Role.USER).build();
+        token = jwtService.getToken(user);
+    }
+
+    // Camino anterior: getUsernameFromToken + isTokenValid (getUsernameFromToken + isTokenExpired)
+    @Benchmark
+    public boolean legacyFilterPath() {
+        final String username = legacyClaims(token).getSubject();
+        return username.equals(user.getUsername())
+            && legacyClaims(token).getSubject().equals(user.getUsername())
+            && !legacyClaims(token).getExpiration().before(new Date());
+    }
+
+    // Camino actual: una única verificación y comprobaciones sobre el token ya verificado
+    @Benchmark
+    public boolean verifiedTokenPath() {
+        final VerifiedToken verified = jwtService.verify(token);
+        return verified.getUsername().equals(user.getUsername()) && jwtService.isTokenValid(verified, user);
+    }
+
+    // Réplica del análisis anterior: decodifica la clave y construye un parser nuevo en cada llamada
+    private static Claims legacyClaims(String token) {
+        final SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+}
@@ -0,0 +1,75 @@
+package jrc.demo_jwt.jwt;
+
+import java.lang.reflect.Proxy; // Repositorio en memoria para el benchmark
+import java.time.Instant; // Instante en el tiempo (UTC)
+import java.util.List; // Resultados vacíos del repositorio
+import java.util.UUID; // Identificadores de token
+import java.util.concurrent.TimeUnit; // Unidades de tiempo para los resultados
+
+import org.openjdk.jmh.annotations.Benchmark; // Marca un método como benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode; // Modo de medición
+import org.openjdk.jmh.annotations.Fork; // Número de JVMs separadas
+import org.openjdk.jmh.annotations.Measurement; // Iteraciones de medición
+import org.openjdk.jmh.annotations.Mode; // Modos disponibles
+import org.openjdk.jmh.annotations.OutputTimeUnit; // Unidad de salida
+import org.openjdk.jmh.annotations.Param; // Parámetros del benchmark
+import org.openjdk.jmh.annotations.Scope; // Alcance del estado
+import org.openjdk.jmh.annotations.Setup; // Preparación del estado
+import org.openjdk.jmh.annotations.State; // Marca una clase como estado del benchmark
+import org.openjdk.jmh.annotations.Warmup; // Iteraciones de calentamiento
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry; // Registro de métricas en memoria
+
+// Coste de la comprobación de revocación que hace el filtro en cada solicitud, con la lista ya poblada:
+// un token no revocado (el caso habitual, resuelto por el filtro de Bloom) y uno revocado (confirmado en el mapa)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenRevocationBenchmark {
+
+    @Param({ "1000", "100000" }) // Tokens revocados y todavía no expirados
+    public int revoked;
+
+    private TokenRevocationService revocationService;
+    private VerifiedToken activeToken;
+    private VerifiedToken revokedToken;
+
+    @Setup
+    public void setup() {
+        // El repositorio no interviene en la comprobación: basta con uno que no guarda nada
+        RevokedTokenRepository repository = (RevokedTokenRepository) Proxy.newProxyInstance(
+            RevokedTokenRepository.class.getClassLoader(),
+            new Class<?>[] { RevokedTokenRepository.class },
+            (proxy, method, args) -> method.getName().startsWith("find") ? List.of() : args == null ? null : args[0]);
+        revocationService = new TokenRevocationService(repository, new JwtProperties(), new SimpleMeterRegistry());
+
+        Instant expiration = Instant.now().plusSeconds(3600);
+        for (int i = 0; i < revoked; i++) {
+            revokedToken = token(expiration);
+            revocationService.revoke(revokedToken);
+        }
+        activeToken = token(expiration);
+    }
+
+    private static VerifiedToken token(Instant expiration) {
+        return VerifiedToken.builder()
+            .id(UUID.randomUUID().toString())
+            .username("benchmark")
+            .expiration(expiration)
+            .authorities(List.of())
+            .build();
+    }
+
+    @Benchmark
+    public boolean activeToken() {
+        return revocationService.isAllowed(activeToken);
+    }
+
+    @Benchmark
+    public boolean revokedToken() {
+        return revocationService.isAllowed(revokedToken);
+    }
+}
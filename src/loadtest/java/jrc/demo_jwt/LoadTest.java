@@ -0,0 +1,164 @@
+package jrc.demo_jwt;
+
+import java.net.URI; // Dirección de las solicitudes
+import java.net.http.HttpClient; // Cliente HTTP del JDK
+import java.net.http.HttpRequest; // Solicitud HTTP
+import java.net.http.HttpResponse; // Respuesta HTTP
+import java.time.Duration; // Duración de la prueba
+import java.util.ArrayList; // Lista de resultados por trabajador
+import java.util.Arrays; // Ordenación de latencias
+import java.util.List; // Interfaz para listas
+import java.util.UUID; // Nombre de usuario único por ejecución
+import java.util.concurrent.ExecutorService; // Ejecutor de los trabajadores
+import java.util.concurrent.Executors; // Fábrica de ejecutores
+import java.util.concurrent.Future; // Resultado de cada trabajador
+import java.util.regex.Matcher; // Extracción del token de la respuesta
+import java.util.regex.Pattern; // Expresión regular del token
+
+// Generador de carga en lazo cerrado contra una instancia en marcha: N trabajadores concurrentes envían
+// solicitudes sin pausa durante un tiempo fijo y se informa del rendimiento y de los percentiles de latencia.
+//
+// Uso (con la aplicación arrancada, por ejemplo, con los perfiles "prod" y "loadtest" sobre H2):
+//   mvn -Ploadtest spring-boot:run [-Dspring-boot.run.arguments=--spring.threads.virtual.enabled=true]
+//   mvn -Ploadtest test-compile exec:java -Dloadtest.scenario=login,demo -Dloadtest.concurrency=400
+//
+// Escenarios: "login" (POST /auth/login, dominado por BCrypt) y "demo" (POST /api/v1/demo con el token: filtro JWT
+// y endpoint protegido). Se ejecutan en el orden indicado para comparar ambos en una misma ejecución.
+//
+// Propiedades: loadtest.url (http://localhost:8020), loadtest.scenario (demo | login | lista separada por comas),
+// loadtest.concurrency (200), loadtest.warmup (PT10S), loadtest.duration (PT30S)
+public final class LoadTest {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final String baseUrl = System.getProperty("loadtest.url", "http://localhost:8020");
+        final String scenarios = System.getProperty("loadtest.scenario", "demo");
+        final int concurrency = Integer.getInteger("loadtest.concurrency", 200);
+        final Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+        final Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT30S"));
+
+        final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+        // Registra un usuario propio para esta ejecución y obtiene su token
+        final String username = "loadtest-" + UUID.randomUUID();
+        final String credentials = "{\"username\":\"" + username + "\",\"password\":\"loadtest\"}";
+        final String token = extractToken(send(client, json(baseUrl + "/auth/register", credentials)).body());
+
+        // Cada escenario se calienta y se mide por separado, con la misma instancia y el mismo usuario
+        for (String scenario : scenarios.split(",")) {
+            final HttpRequest request = switch (scenario.trim()) {
+                case "demo" -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/demo"))
+                    .header("Authorization", "Bearer " + token)
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+                case "login" -> json(baseUrl + "/auth/login", credentials);
+                default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+            };
+
+            System.out.printf("scenario=%s concurrency=%d warmup=%s duration=%s%n",
+                scenario.trim(), concurrency, warmup, duration);
+            run(client, request, concurrency, warmup); // Calentamiento: resultados descartados
+            report(run(client, request, concurrency, duration), duration);
+        }
+    }
+
+    // Muestra el rendimiento y los percentiles de latencia de una medición
+    private static void report(Result result, Duration duration) {
+        final long[] latencies = result.latencies();
+        Arrays.sort(latencies);
+        final double seconds = duration.toNanos() / 1e9;
+        System.out.printf("requests=%d errors=%d throughput=%.1f req/s%n",
+            latencies.length, result.errors(), latencies.length / seconds);
+        System.out.printf("latency ms: p50=%.2f p90=%.2f p99=%.2f max=%.2f%n",
+            percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+            percentile(latencies, 1.0));
+    }
+
+    // Ejecuta "concurrency" trabajadores en hilos virtuales durante el tiempo indicado
+    private static Result run(HttpClient client, HttpRequest request, int concurrency, Duration duration)
+            throws Exception {
+        final long deadline = System.nanoTime() + duration.toNanos();
+        final List<Future<Result>> futures = new ArrayList<>(concurrency);
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(workers.submit(() -> worker(client, request, deadline)));
+            }
+        }
+        long[] all = new long[0];
+        long errors = 0;
+        for (Future<Result> future : futures) {
+            final Result partial = future.get();
+            final long[] merged = Arrays.copyOf(all, all.length + partial.latencies().length);
+            System.arraycopy(partial.latencies(), 0, merged, all.length, partial.latencies().length);
+            all = merged;
+            errors += partial.errors();
+        }
+        return new Result(all, errors);
+    }
+
+    // Envía solicitudes sin pausa hasta el final de la prueba y registra la latencia de las correctas
+    private static Result worker(HttpClient client, HttpRequest request, long deadline) {
+        long[] latencies = new long[1024];
+        int count = 0;
+        long errors = 0;
+        while (System.nanoTime() < deadline) {
+            final long start = System.nanoTime();
+            try {
+                final HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() / 100 != 2) {
+                    errors++;
+                    continue;
+                }
+            } catch (Exception e) {
+                errors++;
+                continue;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - start;
+        }
+        return new Result(Arrays.copyOf(latencies, count), errors);
+    }
+
+    private static HttpRequest json(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private static HttpResponse<String> send(HttpClient client, HttpRequest request) throws Exception {
+        final HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(request.uri() + " -> HTTP " + response.statusCode());
+        }
+        return response;
+    }
+
+    private static String extractToken(String body) {
+        final Matcher matcher = TOKEN.matcher(body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("No token in response: " + body);
+        }
+        return matcher.group(1);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        final int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private record Result(long[] latencies, long errors) {
+    }
+}
@@ -0,0 +1,50 @@
+package jrc.demo_jwt.Admin;
+
+import java.io.IOException; // Error de entrada/salida
+import java.io.InputStream; // Cuerpo de la solicitud
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication; // Activa el controlador solo en la pila servlet
+import org.springframework.http.MediaType; // Tipos de contenido
+import org.springframework.web.bind.annotation.GetMapping; // Anotación para mapear solicitudes GET
+import org.springframework.web.bind.annotation.PostMapping; // Anotación para mapear solicitudes POST
+import org.springframework.web.bind.annotation.RequestMapping; // Anotación para mapear rutas a nivel de clase
+import org.springframework.web.bind.annotation.RequestParam; // Vincula un parámetro de la URL
+import org.springframework.web.bind.annotation.RestController; // Marca esta clase como un controlador REST
+
+import jakarta.servlet.http.HttpServletResponse; // Respuesta HTTP (se escribe directamente en su flujo)
+import lombok.RequiredArgsConstructor; // Genera un constructor para los campos finales requeridos
+
+// Operaciones de administración sobre usuarios (requieren la autoridad ADMIN, ver SecurityConfig).
+// Las respuestas se escriben en el hilo de la solicitud directamente sobre el flujo de salida: un alta masiva
+// puede durar más que el tiempo de espera de una solicitud asíncrona
+@RestController
+@RequestMapping("/api/v1/admin/users")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class AdminUserController {
+
+    private final UserBulkService userBulkService; // Alta masiva de usuarios
+    private final UserTransferService userTransferService; // Exportación e importación de usuarios
+
+    // Alta masiva: un RegisterRequest por línea; responde con un resultado por línea a medida que avanza
+    @PostMapping(value = "batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void register(InputStream body, @RequestParam(defaultValue = "false") boolean issueTokens,
+            HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        userBulkService.register(body, response.getOutputStream(), issueTokens);
+    }
+
+    // Exportación: todos los usuarios, uno por línea, con la contraseña ya hasheada
+    @GetMapping(value = "export")
+    public void export(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        userTransferService.export(response.getOutputStream());
+    }
+
+    // Importación: un usuario exportado por línea; los nombres de usuario ya existentes se omiten y los bloques
+    // revertidos por la base de datos se cuentan como fallidos
+    @PostMapping(value = "import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ImportSummary importUsers(InputStream body) throws IOException {
+        return userTransferService.importUsers(body);
+    }
+}
@@ -0,0 +1,15 @@
+package jrc.demo_jwt.Admin;
+
+import org.springframework.boot.context.properties.ConfigurationProperties; // Vincula propiedades "admin.bulk.*" a esta clase
+
+import lombok.Data; // Genera getters, setters, equals, hashCode y toString
+
+@Data
+@ConfigurationProperties(prefix = "admin.bulk") // Propiedades de configuración con el prefijo "admin.bulk"
+public class BulkProperties {
+    // Filas por transacción: se hashean en paralelo, se insertan en lotes JDBC y se liberan del contexto de
+    // persistencia antes de leer las siguientes (conviene que sea múltiplo de hibernate.jdbc.batch_size)
+    private int chunkSize = 1000;
+    // Tareas de hashing en vuelo por alta masiva (0 = la mitad del pool de hashing, mínimo 1)
+    private int hashingConcurrency = 0;
+}
@@ -0,0 +1,25 @@
+package jrc.demo_jwt.Admin;
+
+import com.fasterxml.jackson.annotation.JsonInclude; // Omite los campos nulos en el JSON
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Resultado de una fila del alta masiva (una línea NDJSON de la respuesta)
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkRegistrationResult {
+
+    public enum Status { CREATED, DUPLICATE, INVALID, FAILED }
+
+    long line; // Número de línea en la entrada (desde 1)
+    String username;
+    Status status;
+    String token; // Token de acceso, solo con issueTokens=true y si el usuario se creó
+    String error; // Motivo del rechazo
+}
@@ -0,0 +1,18 @@
+package jrc.demo_jwt.Admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Resumen de una importación de usuarios
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportSummary {
+    long imported; // Usuarios insertados
+    long duplicates; // Nombres de usuario ya existentes (o repetidos en la entrada), que se omiten
+    long invalid; // Líneas mal formadas o sin nombre de usuario o contraseña
+    long failed; // Usuarios de bloques revertidos por un error de la base de datos (p. ej. alta concurrente)
+}
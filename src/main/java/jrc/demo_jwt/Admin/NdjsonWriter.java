@@ -0,0 +1,36 @@
+package jrc.demo_jwt.Admin;
+
+import java.io.Closeable; // Recurso que se debe cerrar
+import java.io.IOException; // Error de entrada/salida
+import java.io.OutputStream; // Flujo de salida de la respuesta
+
+import com.fasterxml.jackson.core.JsonGenerator; // Escritor JSON incremental
+import com.fasterxml.jackson.databind.ObjectMapper; // Serializador JSON de la aplicación
+
+// Escribe objetos como NDJSON (un documento JSON por línea) directamente sobre el flujo de salida,
+// sin acumular la respuesta en memoria. No cierra el flujo: eso corresponde al contenedor
+final class NdjsonWriter implements Closeable {
+
+    private final JsonGenerator generator; // Generador reutilizado para todas las líneas
+
+    NdjsonWriter(ObjectMapper objectMapper, OutputStream output) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(output);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.setRootValueSeparator(null); // El separador entre documentos es el salto de línea
+    }
+
+    void write(Object value) throws IOException {
+        generator.writeObject(value);
+        generator.writeRaw('\n');
+    }
+
+    // Envía al cliente lo escrito hasta ahora
+    void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
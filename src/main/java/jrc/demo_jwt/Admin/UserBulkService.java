@@ -0,0 +1,215 @@
+package jrc.demo_jwt.Admin;
+
+import java.io.BufferedReader; // Lectura de la entrada línea a línea
+import java.io.IOException; // Error de entrada/salida
+import java.io.InputStream; // Cuerpo de la solicitud
+import java.io.InputStreamReader; // Decodificación de la entrada
+import java.io.OutputStream; // Cuerpo de la respuesta
+import java.nio.charset.StandardCharsets; // Codificación de caracteres
+import java.util.ArrayList; // Implementación de una lista
+import java.util.HashSet; // Conjunto de nombres de usuario del bloque
+import java.util.List; // Interfaz de lista
+import java.util.Locale; // Normalización de nombres de usuario a minúsculas
+import java.util.Set; // Interfaz de conjunto
+import java.util.concurrent.CompletableFuture; // Resultado asíncrono del hashing
+import java.util.concurrent.RejectedExecutionException; // Ejecutor de hashing saturado
+import java.util.function.Supplier; // Tarea que produce un resultado
+
+import org.springframework.dao.DataAccessException; // Error de acceso a datos traducido por Spring
+import org.springframework.security.crypto.password.PasswordEncoder; // Codificador de contraseñas
+import org.springframework.stereotype.Service; // Marca esta clase como un servicio de Spring
+import org.springframework.transaction.support.TransactionTemplate; // Transacciones programáticas (una por bloque)
+
+import com.fasterxml.jackson.core.JsonProcessingException; // Línea que no es JSON válido
+import com.fasterxml.jackson.databind.ObjectMapper; // Serializador JSON de la aplicación
+import com.fasterxml.jackson.databind.ObjectReader; // Lector JSON precalculado para RegisterRequest
+
+import jakarta.persistence.EntityManager; // Contexto de persistencia (persist, flush, clear)
+import jakarta.persistence.PersistenceException; // Error de persistencia de JPA
+import jrc.demo_jwt.Admin.BulkRegistrationResult.Status; // Estado de cada fila
+import jrc.demo_jwt.Auth.PasswordHashingExecutor; // Ejecutor dedicado para el trabajo de BCrypt
+import jrc.demo_jwt.Auth.PasswordHashingProperties; // Tamaño del pool de hashing
+import jrc.demo_jwt.Auth.RegisterRequest; // Datos de un usuario a registrar
+import jrc.demo_jwt.User.CachingUserDetailsService; // Caché de usuarios que debe invalidarse al guardar
+import jrc.demo_jwt.User.Role; // Enum que define los roles de usuario
+import jrc.demo_jwt.User.User; // Clase que representa a un usuario
+import jrc.demo_jwt.User.UserRepository; // Repositorio de usuarios
+import jrc.demo_jwt.jwt.JwtService; // Emisión opcional de tokens
+import lombok.RequiredArgsConstructor; // Genera un constructor para los campos finales requeridos
+
+// Alta masiva de usuarios a partir de NDJSON (un RegisterRequest por línea). La entrada se procesa por bloques
+// de admin.bulk.chunk-size filas: las contraseñas se hashean en el ejecutor de hashing con pocas tareas en vuelo,
+// los usuarios se insertan en lotes JDBC dentro de una transacción por bloque y el resultado de cada fila se
+// escribe en la respuesta en cuanto el bloque termina. La memoria usada depende del tamaño del bloque, no de la entrada
+@Service
+@RequiredArgsConstructor
+public class UserBulkService {
+
+    private final ObjectMapper objectMapper; // Lectura y escritura de NDJSON
+    private final UserRepository userRepository; // Consulta de nombres de usuario existentes
+    private final EntityManager entityManager; // Inserción por lotes y liberación del contexto de persistencia
+    private final TransactionTemplate transactionTemplate; // Una transacción por bloque
+    private final PasswordEncoder passwordEncoder; // Codificador de contraseñas
+    private final PasswordHashingExecutor passwordHashingExecutor; // Pool acotado compartido con login y registro
+    private final PasswordHashingProperties hashingProperties; // Número de hilos del pool de hashing
+    private final CachingUserDetailsService userDetailsService; // Caché de usuarios
+    private final JwtService jwtService; // Emisión de tokens (issueTokens=true)
+    private final BulkProperties properties; // Tamaño de bloque
+
+    // Fila de la entrada todavía sin procesar
+    private record Row(long line, RegisterRequest request) {
+    }
+
+    // Lee la entrada NDJSON y escribe un BulkRegistrationResult por línea en la salida
+    public void register(InputStream input, OutputStream output, boolean issueTokens) throws IOException {
+        final ObjectReader reader = objectMapper.readerFor(RegisterRequest.class);
+        final BufferedReader lines = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        try (NdjsonWriter writer = new NdjsonWriter(objectMapper, output)) {
+            final List<Row> chunk = new ArrayList<>(properties.getChunkSize());
+            long lineNumber = 0;
+            String line;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    chunk.add(new Row(lineNumber, reader.readValue(line)));
+                } catch (JsonProcessingException e) {
+                    writer.write(rejected(lineNumber, null, Status.INVALID, "malformed JSON"));
+                    continue;
+                }
+                if (chunk.size() == properties.getChunkSize()) {
+                    process(chunk, writer, issueTokens);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                process(chunk, writer, issueTokens);
+            }
+        }
+    }
+
+    private void process(List<Row> chunk, NdjsonWriter writer, boolean issueTokens) throws IOException {
+        final List<BulkRegistrationResult> results = new ArrayList<>(chunk.size());
+        final List<Row> accepted = new ArrayList<>(chunk.size());
+
+        // Validación y duplicados (dentro del bloque y frente a la base de datos, con una sola consulta)
+        final Set<String> usernames = new HashSet<>();
+        for (Row row : chunk) {
+            final String username = row.request().getUsername();
+            if (username != null && !username.isBlank()) {
+                usernames.add(username);
+            }
+        }
+        // La collation de MySQL no distingue mayúsculas: "Alice" choca con "alice", así que se compara en minúsculas
+        final Set<String> existing = new HashSet<>();
+        if (!usernames.isEmpty()) {
+            userRepository.findExistingUsernames(usernames).forEach(name -> existing.add(name.toLowerCase(Locale.ROOT)));
+        }
+        final Set<String> seen = new HashSet<>();
+        for (Row row : chunk) {
+            final RegisterRequest request = row.request();
+            final String username = request.getUsername();
+            if (username == null || username.isBlank() || request.getPassword() == null || request.getPassword().isEmpty()) {
+                results.add(rejected(row.line(), username, Status.INVALID, "username and password are required"));
+            } else if (existing.contains(username.toLowerCase(Locale.ROOT)) || !seen.add(username.toLowerCase(Locale.ROOT))) {
+                results.add(rejected(row.line(), username, Status.DUPLICATE, null));
+            } else {
+                results.add(null); // Se completa tras la inserción
+                accepted.add(row);
+            }
+        }
+
+        // Hashing en paralelo y construcción de las entidades
+        final List<String> hashes = hashAll(accepted.stream().map(row -> row.request().getPassword()).toList());
+        final List<User> users = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            final RegisterRequest request = accepted.get(i).request();
+            users.add(User.builder()
+                .username(request.getUsername())
+                .password(hashes.get(i))
+                .firstname(request.getFirstname())
+                .lastname(request.getLastname())
+                .country(request.getCountry())
+                .role(Role.USER)
+                .build());
+        }
+
+        // Inserción en lotes JDBC; clear() libera las entidades para que el contexto no crezca entre bloques
+        String failure = null;
+        if (!users.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    users.forEach(entityManager::persist);
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+            } catch (DataAccessException | PersistenceException e) {
+                failure = "chunk rolled back: " + e.getClass().getSimpleName(); // p. ej. alta concurrente del mismo usuario
+            }
+        }
+
+        int next = 0;
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) != null) {
+                continue;
+            }
+            final Row row = accepted.get(next);
+            final User user = users.get(next++);
+            if (failure != null) {
+                results.set(i, rejected(row.line(), user.getUsername(), Status.FAILED, failure));
+                continue;
+            }
+            userDetailsService.evict(user.getUsername()); // Descarta una posible búsqueda negativa previa
+            results.set(i, BulkRegistrationResult.builder()
+                .line(row.line())
+                .username(user.getUsername())
+                .status(Status.CREATED)
+                .token(issueTokens ? jwtService.getToken(user) : null)
+                .build());
+        }
+
+        for (BulkRegistrationResult result : results) {
+            writer.write(result);
+        }
+        writer.flush(); // El cliente recibe los resultados del bloque sin esperar al final de la entrada
+    }
+
+    // Una tarea por contraseña y, como mucho, admin.bulk.hashing-concurrency tareas en vuelo por llamada: la cola
+    // del ejecutor nunca tiene más que unas pocas tareas del alta masiva, así que los logins y registros se
+    // intercalan con ellas (cada uno espera a lo sumo unos hashes) en lugar de quedar detrás de cientos de BCrypt
+    // y recibir 503. Si el pool está saturado, la contraseña se hashea en el hilo de la solicitud (contrapresión
+    // natural para el cliente del alta masiva)
+    private List<String> hashAll(List<String> passwords) {
+        if (passwords.isEmpty()) {
+            return List.of();
+        }
+        final int inFlight = hashingConcurrency();
+        final List<CompletableFuture<String>> futures = new ArrayList<>(passwords.size());
+        for (int i = 0; i < passwords.size(); i++) {
+            if (i >= inFlight) {
+                futures.get(i - inFlight).join(); // Espera a la más antigua antes de enviar otra
+            }
+            final String password = passwords.get(i);
+            final Supplier<String> task = () -> passwordEncoder.encode(password);
+            try {
+                futures.add(passwordHashingExecutor.submit(task));
+            } catch (RejectedExecutionException e) {
+                futures.add(CompletableFuture.completedFuture(task.get()));
+            }
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    // Por defecto la mitad del pool: la otra mitad queda libre para login y registro
+    private int hashingConcurrency() {
+        final int configured = properties.getHashingConcurrency();
+        final int limit = configured > 0 ? configured : hashingProperties.getPoolSize() / 2;
+        return Math.max(1, Math.min(limit, hashingProperties.getPoolSize()));
+    }
+
+    private static BulkRegistrationResult rejected(long line, String username, Status status, String error) {
+        return BulkRegistrationResult.builder().line(line).username(username).status(status).error(error).build();
+    }
+}
@@ -0,0 +1,34 @@
+package jrc.demo_jwt.Admin;
+
+import jrc.demo_jwt.User.Role;
+import jrc.demo_jwt.User.User;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Usuario tal como se exporta e importa (una línea NDJSON). La contraseña viaja ya hasheada; el id no se
+// exporta porque cada entorno genera los suyos
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserRecord {
+    String username;
+    String password; // Hash BCrypt
+    String firstname;
+    String lastname;
+    String country;
+    Role role;
+
+    static UserRecord from(User user) {
+        return UserRecord.builder()
+            .username(user.getUsername())
+            .password(user.getPassword())
+            .firstname(user.getFirstname())
+            .lastname(user.getLastname())
+            .country(user.getCountry())
+            .role(user.getRole())
+            .build();
+    }
+}
@@ -0,0 +1,173 @@
+package jrc.demo_jwt.Admin;
+
+import java.io.BufferedReader; // Lectura de la entrada línea a línea
+import java.io.IOException; // Error de entrada/salida
+import java.io.InputStream; // Cuerpo de la solicitud
+import java.io.InputStreamReader; // Decodificación de la entrada
+import java.io.OutputStream; // Cuerpo de la respuesta
+import java.io.UncheckedIOException; // Error de E/S dentro de una lambda
+import java.nio.charset.StandardCharsets; // Codificación de caracteres
+import java.util.ArrayList; // Implementación de una lista
+import java.util.HashSet; // Conjunto de nombres de usuario del bloque
+import java.util.List; // Interfaz de lista
+import java.util.Locale; // Normalización de nombres de usuario a minúsculas
+import java.util.Set; // Interfaz de conjunto
+import java.util.stream.Stream; // Recorrido perezoso del resultado de la consulta
+
+import org.hibernate.dialect.MySQLDialect; // Dialecto de MySQL (y MariaDB)
+import org.hibernate.engine.spi.SessionFactoryImplementor; // Acceso al dialecto configurado
+import org.hibernate.jpa.HibernateHints; // Fetch size y consultas de solo lectura
+import org.springframework.dao.DataAccessException; // Error de acceso a datos traducido por Spring
+import org.springframework.stereotype.Service; // Marca esta clase como un servicio de Spring
+import org.springframework.transaction.PlatformTransactionManager; // Gestor de transacciones
+import org.springframework.transaction.support.TransactionTemplate; // Transacciones programáticas
+
+import com.fasterxml.jackson.core.JsonProcessingException; // Línea que no es JSON válido
+import com.fasterxml.jackson.databind.ObjectMapper; // Serializador JSON de la aplicación
+import com.fasterxml.jackson.databind.ObjectReader; // Lector JSON precalculado para UserRecord
+
+import jakarta.persistence.EntityManager; // Contexto de persistencia (persist, detach, flush, clear)
+import jakarta.persistence.PersistenceException; // Error de persistencia de JPA
+import jrc.demo_jwt.Auth.RefreshTokenService; // Revocación de tokens de refresco de las cuentas importadas
+import jrc.demo_jwt.User.CachingUserDetailsService; // Caché de usuarios que debe invalidarse al guardar
+import jrc.demo_jwt.User.Role; // Enum que define los roles de usuario
+import jrc.demo_jwt.User.User; // Clase que representa a un usuario
+import jrc.demo_jwt.User.UserRepository; // Repositorio de usuarios
+
+// Exportación e importación de la tabla de usuarios como NDJSON (un UserRecord por línea), para mover cuentas
+// entre entornos. Ninguna de las dos operaciones carga la tabla ni la entrada en memoria: la exportación
+// recorre un cursor y la importación inserta por bloques de admin.bulk.chunk-size filas
+@Service
+public class UserTransferService {
+
+    private final ObjectMapper objectMapper; // Lectura y escritura de NDJSON
+    private final UserRepository userRepository; // Consulta de duplicados
+    private final EntityManager entityManager; // Cursor de exportación, inserción por lotes y liberación del contexto
+    private final TransactionTemplate readOnlyTransaction; // Transacción de solo lectura que mantiene abierto el cursor
+    private final TransactionTemplate transactionTemplate; // Una transacción por bloque importado
+    private final CachingUserDetailsService userDetailsService; // Caché de usuarios
+    private final RefreshTokenService refreshTokenService; // Tokens de refresco que no deben sobrevivir al nuevo hash
+    private final BulkProperties properties; // Tamaño de bloque
+    private final int exportFetchSize; // Fetch size de la consulta de exportación
+
+    public UserTransferService(ObjectMapper objectMapper, UserRepository userRepository, EntityManager entityManager,
+            PlatformTransactionManager transactionManager, CachingUserDetailsService userDetailsService,
+            RefreshTokenService refreshTokenService, BulkProperties properties) {
+        this.objectMapper = objectMapper;
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userDetailsService = userDetailsService;
+        this.refreshTokenService = refreshTokenService;
+        this.properties = properties;
+        // Connector/J solo transmite fila a fila con Integer.MIN_VALUE (sin useCursorFetch, que obligaría a usar
+        // sentencias preparadas en el servidor en toda la aplicación); el resto de drivers respeta el fetch size
+        final boolean mysql = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+            .getJdbcServices().getDialect() instanceof MySQLDialect;
+        this.exportFetchSize = mysql ? Integer.MIN_VALUE : 1000;
+    }
+
+    // Escribe todos los usuarios en la salida a medida que se leen del cursor
+    public void export(OutputStream output) throws IOException {
+        try (NdjsonWriter writer = new NdjsonWriter(objectMapper, output)) {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<User> users = entityManager.createQuery("select u from User u order by u.id", User.class)
+                        .setHint(HibernateHints.HINT_FETCH_SIZE, exportFetchSize)
+                        .setHint(HibernateHints.HINT_READ_ONLY, true)
+                        .getResultStream()) {
+                    users.forEach(user -> {
+                        entityManager.detach(user); // El contexto de persistencia no crece con la tabla
+                        try {
+                            writer.write(UserRecord.from(user));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e); // Cliente desconectado: se cierra el cursor
+                        }
+                    });
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Inserta los usuarios de la entrada conservando sus hashes (sin BCrypt); omite los nombres ya existentes
+    public ImportSummary importUsers(InputStream input) throws IOException {
+        final ObjectReader reader = objectMapper.readerFor(UserRecord.class);
+        final BufferedReader lines = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        final ImportSummary summary = new ImportSummary();
+        final List<UserRecord> chunk = new ArrayList<>(properties.getChunkSize());
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            final UserRecord record;
+            try {
+                record = reader.readValue(line);
+            } catch (JsonProcessingException e) {
+                summary.invalid++;
+                continue;
+            }
+            if (record.getUsername() == null || record.getUsername().isBlank()
+                    || record.getPassword() == null || record.getPassword().isEmpty()) {
+                summary.invalid++;
+                continue;
+            }
+            chunk.add(record);
+            if (chunk.size() == properties.getChunkSize()) {
+                importChunk(chunk, summary);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, summary);
+        }
+        return summary;
+    }
+
+    private void importChunk(List<UserRecord> chunk, ImportSummary summary) {
+        // La collation de MySQL no distingue mayúsculas: "Alice" choca con "alice", así que se compara en minúsculas
+        final Set<String> existing = new HashSet<>();
+        userRepository.findExistingUsernames(chunk.stream().map(UserRecord::getUsername).toList())
+            .forEach(name -> existing.add(name.toLowerCase(Locale.ROOT)));
+        final Set<String> seen = new HashSet<>();
+        final List<User> users = new ArrayList<>(chunk.size());
+        for (UserRecord record : chunk) {
+            final String key = record.getUsername().toLowerCase(Locale.ROOT);
+            if (existing.contains(key) || !seen.add(key)) {
+                summary.duplicates++;
+                continue;
+            }
+            users.add(User.builder()
+                .username(record.getUsername())
+                .password(record.getPassword())
+                .firstname(record.getFirstname())
+                .lastname(record.getLastname())
+                .country(record.getCountry())
+                .role(record.getRole() != null ? record.getRole() : Role.USER)
+                .build());
+        }
+        if (users.isEmpty()) {
+            return;
+        }
+
+        // Inserción en lotes JDBC; clear() libera las entidades para que el contexto no crezca entre bloques
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                users.forEach(entityManager::persist);
+                entityManager.flush();
+                entityManager.clear();
+                // Una cuenta importada trae su hash: los tokens de refresco que quedaran con su nombre (de una cuenta
+                // anterior con el mismo nombre) no deben seguir valiendo con las credenciales nuevas
+                refreshTokenService.revokeAll(users.stream().map(User::getUsername).toList());
+            });
+        } catch (DataAccessException | PersistenceException e) {
+            summary.failed += users.size(); // p. ej. alta concurrente del mismo usuario: el bloque se revierte entero
+            return;
+        }
+        users.forEach(user -> userDetailsService.evict(user.getUsername())); // Descarta búsquedas negativas previas
+        summary.imported += users.size();
+    }
+}
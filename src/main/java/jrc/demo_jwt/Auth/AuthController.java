@@ -1,31 +1,60 @@
 package jrc.demo_jwt.Auth;
 
+import java.util.concurrent.CompletableFuture; // Resultado asíncrono: libera el hilo de Tomcat mientras se calcula BCrypt
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication; // Activa el bean solo en la pila servlet
 import org.springframework.web.bind.annotation.RequestMapping; // Anotación para mapear rutas a nivel de clase
 import org.springframework.web.bind.annotation.RestController; // Marca esta clase como un controlador REST
+import jrc.demo_jwt.jwt.BearerTokenExtractor; // Análisis del encabezado Authorization
+import jrc.demo_jwt.jwt.JwtProperties; // Configuración de JWT
 import lombok.RequiredArgsConstructor; // Genera un constructor para los campos finales requeridos
+import org.springframework.http.HttpHeaders; // Clase para manejar encabezados HTTP
+import org.springframework.http.HttpStatus; // Códigos de estado HTTP
 import org.springframework.http.ResponseEntity; // Representa una respuesta HTTP completa
 import org.springframework.web.bind.annotation.PostMapping; // Anotación para mapear solicitudes POST
 import org.springframework.web.bind.annotation.RequestBody; // Anotación para vincular el cuerpo de la solicitud a un objeto Java
+import org.springframework.web.bind.annotation.RequestHeader; // Vincula un encabezado de la solicitud a un parámetro
 
 @RestController // Indica que esta clase es un controlador REST
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET) // Pila servlet (la reactiva usa ReactiveAuthController)
 @RequestMapping("/auth") // Define la ruta base para todos los endpoints de este controlador
 @RequiredArgsConstructor // Genera un constructor para inicializar los campos finales (authService)
 public class AuthController {
 
     private final AuthService authService; // Servicio que contiene la lógica de autenticación y registro
+    private final JwtProperties jwtProperties; // Longitud máxima del token de acceso
 
     @PostMapping(value = "login") // Mapea solicitudes POST a "/auth/login"
-    public ResponseEntity<AuthResponse> login(@RequestBody LoginRquest request) {
-        // Llama al servicio de autenticación para manejar el inicio de sesión
-        // Devuelve una respuesta HTTP con el resultado del inicio de sesión
-        return ResponseEntity.ok(authService.login(request));
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@RequestBody LoginRquest request) {
+        // Llama al servicio de autenticación para manejar el inicio de sesión en el ejecutor de hashing
+        // Devuelve una respuesta HTTP con el resultado del inicio de sesión (503 si el ejecutor está saturado)
+        return authService.loginAsync(request).thenApply(ResponseEntity::ok);
     }
 
     @PostMapping(value = "register") // Mapea solicitudes POST a "/auth/register"
-    public ResponseEntity<AuthResponse> register(@RequestBody RegisterRequest request) {
-        // Llama al servicio de autenticación para manejar el registro
-        // Devuelve una respuesta HTTP con el resultado del registro
-        return ResponseEntity.ok(authService.register(request));
+    public CompletableFuture<ResponseEntity<AuthResponse>> register(@RequestBody RegisterRequest request) {
+        // Llama al servicio de autenticación para manejar el registro en el ejecutor de hashing
+        // Devuelve una respuesta HTTP con el resultado del registro (503 si el ejecutor está saturado)
+        return authService.registerAsync(request).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping(value = "refresh") // Mapea solicitudes POST a "/auth/refresh"
+    public ResponseEntity<AuthResponse> refresh(@RequestBody RefreshRequest request) {
+        // Renueva el token de acceso sin BCrypt, directamente en el hilo de la solicitud
+        // Devuelve 401 si el token de refresco es desconocido, ha expirado o ya se utilizó
+        return ResponseEntity.ok(authService.refresh(request));
+    }
+
+    @PostMapping(value = "logout") // Mapea solicitudes POST a "/auth/logout"
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+            @RequestBody(required = false) RefreshRequest request) {
+        final String accessToken = BearerTokenExtractor.extract(authorization, jwtProperties.getMaxTokenLength());
+        if (accessToken == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        // Revoca el token de acceso presentado y, si viene en el cuerpo, el token de refresco
+        authService.logout(accessToken, request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
     }
 
 }
@@ -0,0 +1,50 @@
+package jrc.demo_jwt.Auth;
+
+import java.util.concurrent.RejectedExecutionException; // Lanzada cuando el ejecutor de hashing está saturado
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication; // Activa el bean solo en la pila servlet
+import org.springframework.http.HttpHeaders; // Clase para manejar encabezados HTTP
+import org.springframework.http.HttpStatus; // Códigos de estado HTTP
+import org.springframework.http.ResponseEntity; // Representa una respuesta HTTP completa
+import org.springframework.web.bind.annotation.ExceptionHandler; // Asocia un método a un tipo de excepción
+import org.springframework.web.bind.annotation.RestControllerAdvice; // Manejo global de excepciones para controladores REST
+
+import io.jsonwebtoken.JwtException; // Token de acceso no válido al cerrar sesión
+import jrc.demo_jwt.RateLimit.RateLimitExceededException; // Límite de solicitudes superado
+import lombok.RequiredArgsConstructor; // Genera un constructor para los campos finales requeridos
+
+@RestControllerAdvice(assignableTypes = AuthController.class) // Solo aplica a los endpoints de "/auth"
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET) // Acompaña a AuthController
+@RequiredArgsConstructor
+public class AuthExceptionHandler {
+
+    private final PasswordHashingProperties hashingProperties; // Configuración del ejecutor de hashing
+
+    // Ejecutor de BCrypt saturado: rechazo rápido con 503 y Retry-After, sin trazas de pila en la respuesta
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Void> handleSaturation(RejectedExecutionException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(hashingProperties.getRetryAfterSeconds()))
+            .build();
+    }
+
+    // Token de refresco desconocido, expirado o ya utilizado: el cliente debe volver a iniciar sesión
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<Void> handleInvalidRefreshToken(InvalidRefreshTokenException ex) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    // Token de acceso mal formado, con firma inválida o expirado al cerrar sesión
+    @ExceptionHandler(JwtException.class)
+    public ResponseEntity<Void> handleInvalidAccessToken(JwtException ex) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    // Límite de solicitudes por nombre de usuario superado: 429 con Retry-After
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Void> handleRateLimit(RateLimitExceededException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .build();
+    }
+}
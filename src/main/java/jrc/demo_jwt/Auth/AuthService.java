@@ -1,15 +1,25 @@
 package jrc.demo_jwt.Auth;
 
+import java.util.concurrent.CompletableFuture; // Resultado asíncrono
+import java.util.function.Supplier; // Operación que produce un resultado
+
 import org.springframework.security.authentication.AuthenticationManager; // Maneja la autenticación de usuarios
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken; // Representa un token de autenticación basado en nombre de usuario y contraseña
+import org.springframework.security.core.Authentication; // Resultado de una autenticación correcta
 import org.springframework.security.core.userdetails.UserDetails; // Representa los detalles de un usuario
+import org.springframework.security.core.userdetails.UsernameNotFoundException; // Usuario inexistente
 import org.springframework.security.crypto.password.PasswordEncoder; // Proporciona métodos para codificar contraseñas
 import org.springframework.stereotype.Service; // Marca esta clase como un servicio de Spring
 
+import io.micrometer.core.instrument.MeterRegistry; // Registro de métricas
+import io.micrometer.core.instrument.Timer; // Temporizador de Micrometer
+import jrc.demo_jwt.RateLimit.RateLimitService; // Límite de intentos de login por nombre de usuario
+import jrc.demo_jwt.User.CachingUserDetailsService; // Caché de usuarios que debe invalidarse al guardar
 import jrc.demo_jwt.User.Role; // Enum que define los roles de usuario
 import jrc.demo_jwt.User.User; // Clase que representa a un usuario
 import jrc.demo_jwt.User.UserRepository; // Repositorio para interactuar con la base de datos de usuarios
 import jrc.demo_jwt.jwt.JwtService; // Servicio para manejar operaciones relacionadas con JWT
+import jrc.demo_jwt.jwt.TokenRevocationService; // Lista de revocación de tokens de acceso
 import lombok.RequiredArgsConstructor; // Genera un constructor para los campos finales requeridos
 
 @Service // Marca esta clase como un servicio gestionado por Spring
@@ -20,28 +30,87 @@ public class AuthService {
     private final JwtService jwtService; // Servicio para generar y validar tokens JWT
     private final PasswordEncoder passwordEncoder; // Codificador de contraseñas
     private final AuthenticationManager authenticationManager; // Maneja la autenticación de usuarios
+    private final CachingUserDetailsService userDetailsService; // Caché de usuarios
+    private final PasswordHashingExecutor passwordHashingExecutor; // Ejecutor dedicado para el trabajo de BCrypt
+    private final RefreshTokenService refreshTokenService; // Emisión y rotación de tokens de refresco
+    private final TokenRevocationService tokenRevocationService; // Revocación de tokens de acceso
+    private final RateLimitService rateLimitService; // Límite de intentos de login por nombre de usuario
+    private final MeterRegistry meterRegistry; // Registro de métricas de login y registro
+
+    // Inicio de sesión en el ejecutor de hashing (BCrypt no ocupa hilos de Tomcat).
+    // El límite por nombre de usuario se comprueba antes de encolar el BCrypt (RateLimitExceededException: 429)
+    public CompletableFuture<AuthResponse> loginAsync(LoginRquest request) {
+        rateLimitService.checkUsername("login", request.getUsername());
+        return passwordHashingExecutor.submit(() -> login(request));
+    }
+
+    // Registro en el ejecutor de hashing (BCrypt no ocupa hilos de Tomcat)
+    public CompletableFuture<AuthResponse> registerAsync(RegisterRequest request) {
+        return passwordHashingExecutor.submit(() -> register(request));
+    }
 
     // Método para manejar el inicio de sesión
     public AuthResponse login(LoginRquest request) {
+        return timed("auth.login", () -> doLogin(request));
+    }
+
+    private AuthResponse doLogin(LoginRquest request) {
         // Autentica al usuario utilizando el nombre de usuario y la contraseña proporcionados
-        authenticationManager.authenticate(
+        Authentication authentication = authenticationManager.authenticate(
             new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
         );
 
-        // Busca al usuario en el repositorio por su nombre de usuario
-        UserDetails user = userRepository.findByUsername(request.getUsername()).orElseThrow();
+        // Reutiliza el usuario ya cargado por el proveedor de autenticación (sin una segunda consulta)
+        UserDetails user = (UserDetails) authentication.getPrincipal();
 
         // Genera un token JWT para el usuario autenticado
         String token = jwtService.getToken(user);
 
-        // Devuelve una respuesta con el token generado
+        // Devuelve una respuesta con el token de acceso y un token de refresco
         return AuthResponse.builder()
             .token(token)
+            .refreshToken(refreshTokenService.issue(user.getUsername()))
+            .build();
+    }
+
+    // Método para renovar el token de acceso con un token de refresco (sin BCrypt: se ejecuta en el hilo de la solicitud)
+    public AuthResponse refresh(RefreshRequest request) {
+        return timed("auth.refresh", () -> doRefresh(request));
+    }
+
+    private AuthResponse doRefresh(RefreshRequest request) {
+        // Consume el token de refresco y obtiene uno nuevo (rotación)
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+
+        // Carga el usuario desde la caché para emitir el token de acceso con sus datos actuales
+        UserDetails user;
+        try {
+            user = userDetailsService.loadUserByUsername(rotation.username());
+        } catch (UsernameNotFoundException e) {
+            throw new InvalidRefreshTokenException(); // El usuario fue eliminado después de emitir el token
+        }
+
+        return AuthResponse.builder()
+            .token(jwtService.getToken(user))
+            .refreshToken(rotation.refreshToken())
             .build();
     }
 
+    // Cierre de sesión: revoca el token de acceso hasta su expiración y, si se indica, el token de refresco.
+    // Lanza una JwtException si el token de acceso no es válido
+    public void logout(String accessToken, String refreshToken) {
+        tokenRevocationService.revoke(jwtService.verify(accessToken));
+        if (refreshToken != null && !refreshToken.isEmpty()) {
+            refreshTokenService.revoke(refreshToken);
+        }
+    }
+
     // Método para manejar el registro de nuevos usuarios
     public AuthResponse register(RegisterRequest request) {
+        return timed("auth.register", () -> doRegister(request));
+    }
+
+    private AuthResponse doRegister(RegisterRequest request) {
         // Crea un nuevo usuario con los datos proporcionados en la solicitud
         User user = User.builder()
             .username(request.getUsername()) // Establece el nombre de usuario
@@ -54,11 +123,27 @@ public class AuthService {
 
         // Guarda el usuario en la base de datos
         userRepository.save(user);
+        // Invalida la caché (incluida una posible búsqueda negativa previa de este nombre de usuario)
+        userDetailsService.evict(user.getUsername());
 
-        // Genera un token JWT para el usuario registrado
+        // Genera un token JWT y un token de refresco para el usuario registrado
         return AuthResponse.builder()
             .token(jwtService.getToken(user))
+            .refreshToken(refreshTokenService.issue(user.getUsername()))
             .build();
     }
 
+    // Mide la operación con el resultado (success/failure) como única etiqueta
+    private AuthResponse timed(String name, Supplier<AuthResponse> operation) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            AuthResponse response = operation.get();
+            outcome = "success";
+            return response;
+        } finally {
+            sample.stop(meterRegistry.timer(name, "outcome", outcome));
+        }
+    }
+
 }
@@ -0,0 +1,11 @@
+package jrc.demo_jwt.Auth;
+
+import org.springframework.security.core.AuthenticationException; // Error de autenticación de Spring Security
+
+// Token de refresco desconocido, expirado o ya utilizado
+public class InvalidRefreshTokenException extends AuthenticationException {
+
+    public InvalidRefreshTokenException() {
+        super("Invalid refresh token");
+    }
+}
@@ -0,0 +1,57 @@
+package jrc.demo_jwt.Auth;
+
+import java.util.concurrent.ArrayBlockingQueue; // Cola acotada de tareas pendientes
+import java.util.concurrent.CompletableFuture; // Resultado asíncrono
+import java.util.concurrent.RejectedExecutionException; // Lanzada cuando el ejecutor está saturado
+import java.util.concurrent.ThreadPoolExecutor; // Pool de hilos de tamaño fijo
+import java.util.concurrent.TimeUnit; // Unidades de tiempo
+import java.util.function.Supplier; // Tarea que produce un resultado
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory; // Fábrica de hilos con prefijo de nombre
+import org.springframework.stereotype.Component; // Marca esta clase como un componente de Spring
+
+import io.micrometer.core.instrument.Counter; // Contador de Micrometer
+import io.micrometer.core.instrument.MeterRegistry; // Registro de métricas
+import io.micrometer.core.instrument.Tags; // Etiquetas de métricas
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics; // Métricas del pool (activos, cola, completadas)
+import jakarta.annotation.PreDestroy; // Método invocado al cerrar el contexto
+
+// Ejecutor dedicado y acotado para el trabajo de BCrypt (login y registro), separado de los hilos de Tomcat.
+// Cuando el pool y la cola están llenos la tarea se rechaza de inmediato con RejectedExecutionException,
+// de modo que una avalancha de logins no agota los hilos que atienden /api/v1/**.
+// No se expone como bean de tipo Executor para no sustituir al ejecutor de tareas por defecto de Spring Boot.
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor; // Pool de hilos con cola acotada
+    private final Counter rejected; // Tareas rechazadas por saturación
+
+    public PasswordHashingExecutor(PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+        this.executor = new ThreadPoolExecutor(
+            properties.getPoolSize(),
+            properties.getPoolSize(),
+            0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.getQueueCapacity()), // Limita las tareas en espera
+            new CustomizableThreadFactory("password-hashing-"),
+            new ThreadPoolExecutor.AbortPolicy()); // Rechaza en lugar de bloquear al llamador
+        new ExecutorServiceMetrics(executor, "password-hashing", Tags.empty()).bindTo(meterRegistry);
+        this.rejected = Counter.builder("auth.hashing.rejected")
+            .description("Solicitudes rechazadas porque el ejecutor de hashing está saturado")
+            .register(meterRegistry);
+    }
+
+    // Ejecuta la tarea en el pool dedicado; lanza RejectedExecutionException si está saturado
+    public <T> CompletableFuture<T> submit(Supplier<T> task) throws RejectedExecutionException {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown(); // Deja terminar las tareas en curso y no acepta nuevas
+    }
+}
@@ -0,0 +1,13 @@
+package jrc.demo_jwt.Auth;
+
+import org.springframework.boot.context.properties.ConfigurationProperties; // Vincula propiedades "auth.hashing.*" a esta clase
+
+import lombok.Data; // Genera getters, setters, equals, hashCode y toString
+
+@Data
+@ConfigurationProperties(prefix = "auth.hashing") // Propiedades de configuración con el prefijo "auth.hashing"
+public class PasswordHashingProperties {
+    private int poolSize = Runtime.getRuntime().availableProcessors(); // Hilos dedicados a BCrypt (uno por núcleo)
+    private int queueCapacity = 100; // Solicitudes en espera antes de rechazar con 503
+    private int retryAfterSeconds = 1; // Valor del encabezado Retry-After cuando se rechaza una solicitud
+}
@@ -0,0 +1,53 @@
+package jrc.demo_jwt.Auth;
+
+import java.time.Instant; // Instante en el tiempo (UTC)
+
+import org.springframework.data.domain.Persistable; // Permite indicar a Spring Data si la entidad es nueva
+
+import jakarta.persistence.Column; // Marca un campo como una columna en la base de datos
+import jakarta.persistence.Entity; // Marca esta clase como una entidad JPA
+import jakarta.persistence.Id; // Marca un campo como la clave primaria
+import jakarta.persistence.Index; // Define un índice sobre la tabla
+import jakarta.persistence.PostLoad; // Callback tras cargar la entidad
+import jakarta.persistence.PostPersist; // Callback tras insertar la entidad
+import jakarta.persistence.Table; // Define la tabla asociada a esta entidad
+import jakarta.persistence.Transient; // Campo que no se persiste
+import lombok.AllArgsConstructor; // Genera un constructor con todos los campos
+import lombok.Builder; // Proporciona un patrón de construcción para la clase
+import lombok.Data; // Genera getters, setters, equals, hashCode y toString
+import lombok.NoArgsConstructor; // Genera un constructor sin argumentos
+
+// Token de refresco emitido a un usuario. Solo se guarda el hash SHA-256 del valor opaco que recibe el cliente,
+// de modo que una copia de la tabla no permite obtener nuevos tokens de acceso
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "refresh_token", indexes = {@Index(columnList = "username")}) // Índice para revocar todos los tokens de un usuario
+public class RefreshToken implements Persistable<String> {
+
+    @Id // La búsqueda por hash es una consulta por clave primaria
+    @Column(length = 43) // SHA-256 en Base64url sin relleno
+    String id; // Hash del token de refresco
+
+    @Column(nullable = false)
+    String username; // Usuario al que pertenece el token
+
+    @Column(nullable = false)
+    Instant expiresAt; // Fecha de expiración del token
+
+    @Transient
+    boolean persisted; // El identificador es asignado: sin este indicador save() haría un SELECT antes del INSERT
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
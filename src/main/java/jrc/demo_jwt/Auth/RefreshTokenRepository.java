@@ -0,0 +1,29 @@
+package jrc.demo_jwt.Auth;
+
+import java.time.Instant;
+import java.util.Collection;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    // Consume el token en una única sentencia: si dos solicitudes usan el mismo token, solo una borra la fila
+    @Modifying
+    @Query("delete from RefreshToken t where t.id = :id and t.expiresAt > :now")
+    int consume(@Param("id") String id, @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.username = :username")
+    int deleteByUsername(@Param("username") String username); // revoca todos los tokens de un usuario
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.username in :usernames")
+    int deleteByUsernameIn(@Param("usernames") Collection<String> usernames); // revoca los tokens de varios usuarios
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now); // elimina los tokens ya expirados
+}
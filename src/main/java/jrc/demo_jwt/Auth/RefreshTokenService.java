@@ -0,0 +1,102 @@
+package jrc.demo_jwt.Auth;
+
+import java.nio.charset.StandardCharsets; // Codificación de caracteres
+import java.security.MessageDigest; // Cálculo de resúmenes criptográficos
+import java.security.NoSuchAlgorithmException; // Algoritmo de resumen no disponible
+import java.security.SecureRandom; // Generador de números aleatorios criptográficamente seguro
+import java.time.Instant; // Instante en el tiempo (UTC)
+import java.util.Base64; // Codificación Base64url
+import java.util.Collection; // Nombres de usuario de un bloque importado
+
+import org.springframework.scheduling.annotation.Scheduled; // Ejecución periódica
+import org.springframework.stereotype.Service; // Marca esta clase como un servicio de Spring
+import org.springframework.transaction.annotation.Transactional; // Delimita una transacción
+
+import jrc.demo_jwt.jwt.JwtProperties; // Configuración de JWT (vida de los tokens de refresco)
+import lombok.RequiredArgsConstructor; // Genera un constructor para los campos finales requeridos
+
+// Emite, rota y revoca tokens de refresco. El token es un valor aleatorio opaco (no un JWT): se valida con una
+// consulta por clave primaria sobre su hash SHA-256, sin BCrypt ni firma
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom(); // Fuente de los valores de los tokens
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding(); // Codificación compacta y segura en URLs
+
+    private final RefreshTokenRepository refreshTokenRepository; // Repositorio de tokens de refresco
+    private final JwtProperties jwtProperties; // Vida de los tokens de refresco
+
+    // Resultado de rotar un token de refresco: el usuario al que pertenecía y el token que lo sustituye
+    public record Rotation(String username, String refreshToken) {
+    }
+
+    // Emite un nuevo token de refresco para el usuario y devuelve su valor (solo se guarda el hash)
+    @Transactional
+    public String issue(String username) {
+        final byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        final String token = ENCODER.encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+            .id(hash(token))
+            .username(username)
+            .expiresAt(Instant.now().plus(jwtProperties.getRefresh().getExpiration()))
+            .build());
+        return token;
+    }
+
+    // Consume el token de refresco y emite uno nuevo: cada token se puede usar una sola vez
+    @Transactional
+    public Rotation rotate(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new InvalidRefreshTokenException();
+        }
+        final String id = hash(token);
+        final RefreshToken refreshToken = refreshTokenRepository.findById(id)
+            .orElseThrow(InvalidRefreshTokenException::new);
+
+        // El borrado condicionado decide entre solicitudes concurrentes con el mismo token y descarta los expirados
+        if (refreshTokenRepository.consume(id, Instant.now()) == 0) {
+            throw new InvalidRefreshTokenException();
+        }
+        return new Rotation(refreshToken.getUsername(), issue(refreshToken.getUsername()));
+    }
+
+    // Revoca un token de refresco concreto (cierre de sesión en un dispositivo)
+    @Transactional
+    public void revoke(String token) {
+        refreshTokenRepository.deleteById(hash(token));
+    }
+
+    // Revoca todos los tokens de refresco del usuario (por ejemplo, tras un cambio de contraseña)
+    @Transactional
+    public void revokeAll(String username) {
+        refreshTokenRepository.deleteByUsername(username);
+    }
+
+    // Revoca los tokens de refresco de varios usuarios con una sola sentencia (importación de usuarios)
+    @Transactional
+    public void revokeAll(Collection<String> usernames) {
+        if (!usernames.isEmpty()) {
+            refreshTokenRepository.deleteByUsernameIn(usernames);
+        }
+    }
+
+    // Elimina periódicamente los tokens expirados para que la tabla no crezca indefinidamente
+    @Scheduled(fixedDelayString = "${jwt.refresh.prune-interval:PT1H}")
+    @Transactional
+    public void pruneExpired() {
+        refreshTokenRepository.deleteExpired(Instant.now());
+    }
+
+    // Hash SHA-256 del token en Base64url (43 caracteres)
+    private static String hash(String token) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ENCODER.encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // SHA-256 está disponible en toda JVM
+        }
+    }
+}
@@ -4,13 +4,21 @@ import org.springframework.context.annotation.Bean; // Marca un método como pro
 import org.springframework.context.annotation.Configuration; // Indica que esta clase contiene configuraciones de Spring
 import org.springframework.security.authentication.AuthenticationManager; // Maneja la autenticación de usuarios
 import org.springframework.security.authentication.AuthenticationProvider; // Proveedor de autenticación para manejar la lógica de autenticación
+import org.springframework.security.authentication.ProviderManager; // AuthenticationManager que delega en proveedores
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider; // Proveedor de autenticación basado en DAO
-import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration; // Configuración de autenticación
-import org.springframework.security.core.userdetails.UserDetailsService; // Servicio para cargar detalles de usuario
-import org.springframework.security.core.userdetails.UsernameNotFoundException; // Excepción lanzada cuando no se encuentra un usuario
+import org.springframework.security.core.userdetails.UserDetails; // Representa los detalles de un usuario
+import java.util.Map; // Codificadores por identificador de formato
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder; // Implementación de Argon2 (requiere Bouncy Castle)
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder; // Implementación de codificación de contraseñas con BCrypt
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder; // Elige el codificador según el prefijo "{id}" del hash
 import org.springframework.security.crypto.password.PasswordEncoder; // Interfaz para codificar contraseñas
 
+import io.micrometer.core.instrument.Gauge; // Medidor de un valor instantáneo
+import io.micrometer.core.instrument.MeterRegistry; // Registro de métricas
+import jrc.demo_jwt.Auth.RefreshTokenService; // Revocación de los tokens de refresco al cambiar el hash
+import jrc.demo_jwt.User.CachingUserDetailsService; // UserDetailsService con caché delante del repositorio
+import jrc.demo_jwt.User.UserCacheProperties; // Configuración de la caché de usuarios
 import jrc.demo_jwt.User.UserRepository; // Repositorio para interactuar con la base de datos de usuarios
 import lombok.RequiredArgsConstructor; // Genera un constructor para los campos finales requeridos
 
@@ -19,11 +27,16 @@ import lombok.RequiredArgsConstructor; // Genera un constructor para los campos
 public class ApplicationConfig {
 
     private final UserRepository userRepository; // Repositorio para acceder a los datos de los usuarios
+    private final UserCacheProperties userCacheProperties; // Tamaño máximo y tiempos de vida de la caché de usuarios
+    private final MeterRegistry meterRegistry; // Registro de métricas (Actuator / Prometheus)
+    private final PasswordProperties passwordProperties; // Formato y coste de los hashes de contraseña
+    private final RefreshTokenService refreshTokenService; // Tokens de refresco del usuario
 
     @Bean // Define un bean gestionado por Spring
-    public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
-        // Proporciona el AuthenticationManager desde la configuración de autenticación
-        return config.getAuthenticationManager();
+    public AuthenticationManager authenticationManager() {
+        // Proporciona un AuthenticationManager sobre el proveedor DAO. Se construye directamente (y no desde
+        // AuthenticationConfiguration, que solo existe en la pila servlet) para que AuthService funcione en ambas pilas
+        return new ProviderManager(authenticationProvider());
     }
 
     @Bean // Define un bean gestionado por Spring
@@ -32,19 +45,43 @@ public class ApplicationConfig {
         DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
         authenticationProvider.setUserDetailsService(userDetailService()); // Establece el servicio de detalles de usuario
         authenticationProvider.setPasswordEncoder(passwordEncoder()); // Establece el codificador de contraseñas
+        // Tras un login correcto con un hash desactualizado (formato o coste), guarda el hash recalculado y revoca
+        // los tokens de refresco anteriores: ningún token emitido con las credenciales antiguas sobrevive al cambio
+        // (el login en curso emite el suyo después de autenticar)
+        authenticationProvider.setUserDetailsPasswordService((user, newPassword) -> {
+            final UserDetails updated = userDetailService().updatePassword(user, newPassword);
+            refreshTokenService.revokeAll(user.getUsername());
+            return updated;
+        });
         return authenticationProvider;
     }
 
     @Bean // Define un bean gestionado por Spring
     public PasswordEncoder passwordEncoder() {
-        // Proporciona una implementación de codificación de contraseñas con BCrypt
-        return new BCryptPasswordEncoder();
+        // Coste de BCrypt fijado por configuración o calibrado al arrancar para la latencia objetivo en este hardware
+        final PasswordProperties.Bcrypt bcrypt = passwordProperties.getBcrypt();
+        final int strength = bcrypt.getStrength() != null
+            ? bcrypt.getStrength()
+            : BCryptStrengthCalibrator.calibrate(bcrypt.getTargetLatency(), bcrypt.getMinStrength(), bcrypt.getMaxStrength());
+        Gauge.builder("auth.password.bcrypt.strength", () -> strength)
+            .description("Coste de BCrypt con el que se generan los hashes nuevos")
+            .register(meterRegistry);
+
+        // Hashes con prefijo de formato ("{bcrypt}...", "{argon2}..."); los hashes sin prefijo guardados hasta ahora
+        // son BCrypt y se verifican con el codificador BCrypt
+        final BCryptPasswordEncoder bcryptEncoder = new BCryptPasswordEncoder(strength);
+        final DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(passwordProperties.getEncodingId(), Map.of(
+            "bcrypt", bcryptEncoder,
+            "argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8()));
+        encoder.setDefaultPasswordEncoderForMatches(bcryptEncoder);
+
+        // Mide la duración de cada hash
+        return new TimedPasswordEncoder(encoder, meterRegistry);
     }
 
     @Bean // Define un bean gestionado por Spring
-    public UserDetailsService userDetailService() {
-        // Proporciona un servicio para cargar detalles de usuario desde el repositorio
-        return username -> userRepository.findByUsername(username)
-            .orElseThrow(() -> new UsernameNotFoundException("User not found")); // Lanza una excepción si el usuario no existe
+    public CachingUserDetailsService userDetailService() {
+        // Proporciona un servicio para cargar detalles de usuario desde el repositorio, con caché en memoria
+        return new CachingUserDetailsService(userRepository, userCacheProperties, meterRegistry);
     }
 }
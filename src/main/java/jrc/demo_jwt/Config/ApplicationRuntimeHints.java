@@ -0,0 +1,82 @@
+package jrc.demo_jwt.Config;
+
+import java.util.List; // Listas de nombres de clases
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar; // Reflexión necesaria para (de)serializar con Jackson
+import org.springframework.aot.hint.MemberCategory; // Miembros accesibles por reflexión
+import org.springframework.aot.hint.RuntimeHints; // Indicaciones para la imagen nativa (reflexión, recursos)
+import org.springframework.aot.hint.RuntimeHintsRegistrar; // Registra indicaciones durante el procesamiento AOT
+import org.springframework.aot.hint.TypeReference; // Referencia a una clase por nombre (sin cargarla)
+
+import jrc.demo_jwt.Admin.BulkRegistrationResult; // Línea de resultado del alta masiva (NDJSON)
+import jrc.demo_jwt.Admin.UserRecord; // Línea de exportación e importación de usuarios (NDJSON)
+import jrc.demo_jwt.Auth.RefreshToken; // Entidad del token de refresco
+import jrc.demo_jwt.Auth.RegisterRequest; // Línea de entrada del alta masiva (NDJSON)
+import jrc.demo_jwt.User.User; // Entidad del usuario
+import jrc.demo_jwt.jwt.RevokedToken; // Entidad del token revocado
+
+// Indicaciones para la imagen nativa de lo que el análisis AOT de Spring no puede deducir por sí solo
+public class ApplicationRuntimeHints implements RuntimeHintsRegistrar {
+
+    // jjwt-api instancia la implementación por nombre (Jwts.builder/parser, Jwts.SIG, Keys, Jwks): lo que usan
+    // JwtService, JwtKeyRing y JwksController
+    private static final List<String> JJWT_IMPLEMENTATION = List.of(
+        "io.jsonwebtoken.impl.DefaultJwtBuilder",
+        "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+        "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+        "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+        "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+        "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+        "io.jsonwebtoken.impl.security.StandardKeyOperations",
+        "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+        "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+        "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+        "io.jsonwebtoken.impl.security.StandardCurves",
+        "io.jsonwebtoken.impl.security.KeysBridge",
+        "io.jsonwebtoken.impl.security.JwksBridge",
+        "io.jsonwebtoken.impl.security.DefaultKeyOperationPolicyBuilder",
+        "io.jsonwebtoken.impl.security.DefaultKeyOperationBuilder",
+        "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder",
+        "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder",
+        "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+        "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+        // Proveedor JCA que jjwt detecta y registra si está en el classpath (Bouncy Castle, para Argon2)
+        "org.bouncycastle.jce.provider.BouncyCastleProvider");
+
+    // Serializadores JSON de jjwt, cargados con ServiceLoader desde jjwt-jackson
+    private static final List<String> JJWT_JACKSON = List.of(
+        "io.jsonwebtoken.jackson.io.JacksonSerializer",
+        "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String type : JJWT_IMPLEMENTATION) {
+            hints.reflection().registerType(TypeReference.of(type),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+        for (String type : JJWT_JACKSON) {
+            hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+        hints.resources()
+            .registerPattern("META-INF/services/io.jsonwebtoken.*")
+            .registerPattern("db/*.sql") // Esquema del perfil "prod"
+            .registerPattern("hibernate-jcache.conf") // Caché de segundo nivel (y reference.conf de Caffeine JCache)
+            .registerPattern("reference.conf");
+
+        // Entidades JPA: Hibernate accede a los campos y al constructor sin argumentos por reflexión
+        for (Class<?> entity : List.of(User.class, RefreshToken.class, RevokedToken.class)) {
+            hints.reflection().registerType(entity, MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+
+        registerBindings(hints);
+    }
+
+    // Tipos que se (de)serializan con el ObjectMapper fuera de un controlador (NDJSON de administración), donde
+    // Spring no los detecta; equivale a @RegisterReflectionForBinding
+    private static void registerBindings(RuntimeHints hints) {
+        final BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+        bindings.registerReflectionHints(hints.reflection(),
+            RegisterRequest.class, UserRecord.class, BulkRegistrationResult.class);
+    }
+}
@@ -0,0 +1,33 @@
+package jrc.demo_jwt.Config;
+
+import java.time.Duration; // Duración objetivo de un hash
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder; // Implementación de BCrypt
+
+// Elige el coste de BCrypt para este hardware: mide un hash con el coste mínimo y, como cada punto de coste
+// duplica el trabajo, sube el coste mientras la duración estimada no supere el objetivo
+final class BCryptStrengthCalibrator {
+
+    private static final int SAMPLES = 3; // El primer hash calienta el JIT; se toma la muestra más rápida
+
+    private BCryptStrengthCalibrator() {
+    }
+
+    static int calibrate(Duration targetLatency, int minStrength, int maxStrength) {
+        final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minStrength);
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            final long start = System.nanoTime();
+            encoder.encode("calibration");
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+
+        int strength = minStrength;
+        long estimate = fastest;
+        while (strength < maxStrength && estimate * 2 <= targetLatency.toNanos()) {
+            strength++;
+            estimate *= 2;
+        }
+        return strength;
+    }
+}
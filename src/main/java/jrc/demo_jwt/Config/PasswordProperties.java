@@ -0,0 +1,26 @@
+package jrc.demo_jwt.Config;
+
+import java.time.Duration; // Duración objetivo de un hash
+
+import org.springframework.boot.context.properties.ConfigurationProperties; // Vincula propiedades "auth.password.*" a esta clase
+
+import lombok.Data; // Genera getters, setters, equals, hashCode y toString
+
+@Data
+@ConfigurationProperties(prefix = "auth.password") // Propiedades de configuración con el prefijo "auth.password"
+public class PasswordProperties {
+
+    // Formato de los hashes nuevos: "bcrypt" o "argon2". Los hashes en otro formato se siguen verificando
+    // y se reescriben en el formato actual la próxima vez que el usuario inicia sesión
+    private String encodingId = "bcrypt";
+
+    private final Bcrypt bcrypt = new Bcrypt(); // Coste de BCrypt
+
+    @Data
+    public static class Bcrypt {
+        private Integer strength; // Coste fijo (log2 de las rondas); sin valor se calibra al arrancar
+        private Duration targetLatency = Duration.ofMillis(100); // Duración buscada para un hash en este hardware
+        private int minStrength = 10; // Coste mínimo aceptable aunque el hardware sea lento
+        private int maxStrength = 16; // Coste máximo aunque el hardware sea muy rápido
+    }
+}
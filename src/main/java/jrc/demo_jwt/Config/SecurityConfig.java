@@ -1,5 +1,7 @@
 package jrc.demo_jwt.Config;
 
+import org.springframework.beans.factory.annotation.Value; // Inyecta el puerto de gestión
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication; // Activa el bean solo en la pila servlet
 import org.springframework.context.annotation.Bean; // Marca un método como un proveedor de un bean administrado por Spring
 import org.springframework.context.annotation.Configuration; // Indica que esta clase contiene configuraciones de Spring
 import org.springframework.security.authentication.AuthenticationProvider; // Proveedor de autenticación para manejar la lógica de autenticación
@@ -9,20 +11,24 @@ import org.springframework.security.config.http.SessionCreationPolicy; // Config
 import org.springframework.security.web.SecurityFilterChain; // Cadena de filtros de seguridad
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter; // Filtro de autenticación basado en nombre de usuario y contraseña
 
+import jrc.demo_jwt.RateLimit.RateLimitFilter; // Límite de solicitudes por IP para "/auth/"
 import jrc.demo_jwt.jwt.JwtAuthenticationFilter; // Filtro personalizado para manejar la autenticación basada en JWT
 
 import lombok.RequiredArgsConstructor; // Genera un constructor para los campos finales requeridos
 
 @Configuration // Indica que esta clase define configuraciones de Spring
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET) // Pila servlet (la reactiva está en ReactiveSecurityConfig)
 @EnableWebSecurity // Habilita la seguridad web en la aplicación
 @RequiredArgsConstructor // Genera un constructor para los campos finales (jwtAuthenticationFilter y authProvider)
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter; // Filtro personalizado para manejar JWT
     private final AuthenticationProvider authProvider; // Proveedor de autenticación para manejar la lógica de autenticación
+    private final RateLimitFilter rateLimitFilter; // Límite de solicitudes por IP para "/auth/"
 
     @Bean // Define un bean administrado por Spring
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+            @Value("${management.server.port:-1}") int managementPort) throws Exception {
 
         return http
             // Deshabilita la protección CSRF (Cross-Site Request Forgery)
@@ -33,6 +39,12 @@ public class SecurityConfig {
             .authorizeHttpRequests(authRequest -> 
                 authRequest
                     .requestMatchers("/auth/**").permitAll() // Permite el acceso sin autenticación a las rutas que comienzan con "/auth/"
+                    .requestMatchers("/actuator/health", "/livez", "/readyz").permitAll() // Sondas de salud
+                    // Métricas solo en el puerto de gestión (interno); si el actuator comparte el puerto público, requieren ADMIN
+                    .requestMatchers(request -> request.getLocalPort() == managementPort).permitAll()
+                    .requestMatchers("/actuator/**").hasAuthority("ADMIN")
+                    .requestMatchers("/.well-known/jwks.json").permitAll() // Claves públicas de firma (JWKS)
+                    .requestMatchers("/api/v1/admin/**").hasAuthority("ADMIN") // Administración de usuarios
                     .anyRequest().authenticated() // Requiere autenticación para cualquier otra solicitud
             )
             
@@ -47,6 +59,9 @@ public class SecurityConfig {
             
             // Agrega el filtro personalizado para manejar JWT antes del filtro de autenticación predeterminado
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+
+            // Limita "/auth/" por IP antes de cualquier otro trabajo (incluido el análisis del JWT)
+            .addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class)
             
             // Construye y devuelve la cadena de filtros de seguridad
             .build();
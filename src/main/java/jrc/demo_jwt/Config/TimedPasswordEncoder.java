@@ -0,0 +1,42 @@
+package jrc.demo_jwt.Config;
+
+import org.springframework.security.crypto.password.PasswordEncoder; // Interfaz para codificar contraseñas
+
+import io.micrometer.core.instrument.MeterRegistry; // Registro de métricas
+import io.micrometer.core.instrument.Timer; // Temporizador de Micrometer
+
+// Decorador de PasswordEncoder que mide la duración de cada operación (BCrypt domina el coste de login y registro)
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate; // Codificador real
+    private final Timer encodeTimer; // Duración de encode (registro)
+    private final Timer matchesTimer; // Duración de matches (login)
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = passwordTimer(meterRegistry, "encode");
+        this.matchesTimer = passwordTimer(meterRegistry, "matches");
+    }
+
+    private static Timer passwordTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("auth.password")
+            .description("Duración del hash de contraseñas")
+            .tag("operation", operation)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -2,8 +2,16 @@ package jrc.demo_jwt;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import jrc.demo_jwt.Config.ApplicationRuntimeHints;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableScheduling
+@ImportRuntimeHints(ApplicationRuntimeHints.class)
 public class DemoJwtApplication {
 
 	public static void main(String[] args) {
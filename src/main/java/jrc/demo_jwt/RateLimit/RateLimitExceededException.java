@@ -0,0 +1,15 @@
+package jrc.demo_jwt.RateLimit;
+
+import lombok.Getter; // Genera el getter de retryAfterSeconds
+
+// Límite de solicitudes superado. No construye traza de pila: se lanza en cada rechazo y solo se traduce a un 429
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds; // Valor del encabezado Retry-After
+
+    public RateLimitExceededException(long retryAfterSeconds) {
+        super("Rate limit exceeded", null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,45 @@
+package jrc.demo_jwt.RateLimit;
+
+import java.io.IOException; // Error de entrada/salida
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication; // Activa el bean solo en la pila servlet
+import org.springframework.http.HttpHeaders; // Clase para manejar encabezados HTTP
+import org.springframework.http.HttpStatus; // Códigos de estado HTTP
+import org.springframework.stereotype.Component; // Marca esta clase como un componente de Spring
+import org.springframework.web.filter.OncePerRequestFilter; // Filtro que se ejecuta una vez por solicitud
+
+import jakarta.servlet.FilterChain; // Representa la cadena de filtros
+import jakarta.servlet.ServletException; // Excepción lanzada por un servlet
+import jakarta.servlet.http.HttpServletRequest; // Representa una solicitud HTTP
+import jakarta.servlet.http.HttpServletResponse; // Representa una respuesta HTTP
+import lombok.RequiredArgsConstructor; // Genera un constructor con los campos finales requeridos
+
+// Límite por IP para los endpoints de "/auth/", que no requieren autenticación y cuestan un BCrypt cada uno.
+// Se registra delante de JwtAuthenticationFilter (ver SecurityConfig) y rechaza con un 429 sin cuerpo
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET) // La pila reactiva usa RateLimitWebFilter
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String PREFIX = "/auth/"; // Rutas limitadas
+
+    private final RateLimitService rateLimitService; // Limitadores configurados por endpoint
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getServletPath().startsWith(PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        final String endpoint = request.getServletPath().substring(PREFIX.length()); // Por ejemplo, "login"
+        final long retryAfterSeconds = rateLimitService.tryAcquireIp(endpoint, request.getRemoteAddr());
+        if (retryAfterSeconds > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
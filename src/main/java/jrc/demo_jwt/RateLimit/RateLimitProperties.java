@@ -0,0 +1,39 @@
+package jrc.demo_jwt.RateLimit;
+
+import java.time.Duration; // Duración
+import java.util.LinkedHashMap; // Mapa con orden de inserción
+import java.util.Map; // Interfaz para mapas
+
+import org.springframework.boot.context.properties.ConfigurationProperties; // Vincula propiedades "auth.rate-limit.*" a esta clase
+
+import lombok.AllArgsConstructor; // Genera un constructor con todos los campos
+import lombok.Data; // Genera getters, setters, equals, hashCode y toString
+import lombok.NoArgsConstructor; // Genera un constructor sin argumentos
+
+// Límites por endpoint de "/auth/" (la clave es el nombre del endpoint: login, register, refresh...).
+// Un endpoint sin límite configurado no se limita
+@Data
+@ConfigurationProperties(prefix = "auth.rate-limit") // Propiedades de configuración con el prefijo "auth.rate-limit"
+public class RateLimitProperties {
+
+    private boolean enabled = true; // Desactivar solo para pruebas de carga
+    private long maxKeys = 100_000; // Claves (IP o usuarios) por limitador; acota la memoria ante IP falsas o rotativas
+
+    // Por dirección IP del cliente (request.getRemoteAddr(); detrás de un proxy, server.forward-headers-strategy)
+    private Map<String, Limit> ip = new LinkedHashMap<>(Map.of(
+        "login", new Limit(30, Duration.ofMinutes(1)),
+        "register", new Limit(10, Duration.ofMinutes(1)),
+        "refresh", new Limit(60, Duration.ofMinutes(1))));
+
+    // Por nombre de usuario (frena los ataques de diccionario repartidos entre muchas IP)
+    private Map<String, Limit> username = new LinkedHashMap<>(Map.of(
+        "login", new Limit(10, Duration.ofMinutes(1))));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        private int limit; // Solicitudes permitidas de golpe y, después, por cada periodo
+        private Duration period = Duration.ofMinutes(1);
+    }
+}
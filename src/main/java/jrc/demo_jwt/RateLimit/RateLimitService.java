@@ -0,0 +1,78 @@
+package jrc.demo_jwt.RateLimit;
+
+import java.util.HashMap; // Implementación de un mapa hash
+import java.util.Locale; // Normalización de nombres de usuario
+import java.util.Map; // Interfaz para mapas
+
+import org.springframework.scheduling.annotation.Scheduled; // Ejecución periódica
+import org.springframework.stereotype.Service; // Marca esta clase como un servicio gestionado por Spring
+
+import io.micrometer.core.instrument.Counter; // Contador de Micrometer
+import io.micrometer.core.instrument.MeterRegistry; // Registro de métricas
+
+// Limitadores de "/auth/": uno por endpoint y por tipo de clave (IP o nombre de usuario), creados al arrancar a
+// partir de RateLimitProperties. Los rechazos se contabilizan en auth.rate_limit.rejected{key,endpoint}
+@Service
+public class RateLimitService {
+
+    private final boolean enabled; // auth.rate-limit.enabled
+    private final Map<String, RateLimiter> ipLimiters = new HashMap<>(); // Endpoint -> limitador por IP
+    private final Map<String, RateLimiter> usernameLimiters = new HashMap<>(); // Endpoint -> limitador por usuario
+    private final Map<String, Counter> rejections = new HashMap<>(); // Contadores precalculados por endpoint y clave
+
+    public RateLimitService(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        properties.getIp().forEach((endpoint, limit) -> {
+            ipLimiters.put(endpoint, new RateLimiter(limit.getLimit(), limit.getPeriod().toNanos(), properties.getMaxKeys()));
+            rejections.put("ip:" + endpoint, rejectionCounter(meterRegistry, "ip", endpoint));
+        });
+        properties.getUsername().forEach((endpoint, limit) -> {
+            usernameLimiters.put(endpoint, new RateLimiter(limit.getLimit(), limit.getPeriod().toNanos(), properties.getMaxKeys()));
+            rejections.put("username:" + endpoint, rejectionCounter(meterRegistry, "username", endpoint));
+        });
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String key, String endpoint) {
+        return Counter.builder("auth.rate_limit.rejected")
+            .description("Solicitudes rechazadas por superar el límite")
+            .tag("key", key)
+            .tag("endpoint", endpoint)
+            .register(meterRegistry);
+    }
+
+    // Consume un token de la IP para el endpoint. Devuelve 0 si se permite o los segundos para Retry-After
+    public long tryAcquireIp(String endpoint, String ip) {
+        final RateLimiter limiter = enabled ? ipLimiters.get(endpoint) : null;
+        if (limiter == null) {
+            return 0;
+        }
+        final long wait = limiter.tryAcquire(ip, System.nanoTime());
+        if (wait == 0) {
+            return 0;
+        }
+        rejections.get("ip:" + endpoint).increment();
+        return RateLimiter.toRetryAfterSeconds(wait);
+    }
+
+    // Consume un token del nombre de usuario para el endpoint; lanza RateLimitExceededException si no quedan
+    public void checkUsername(String endpoint, String username) {
+        final RateLimiter limiter = enabled && username != null ? usernameLimiters.get(endpoint) : null;
+        if (limiter == null) {
+            return;
+        }
+        // Sin distinguir mayúsculas, igual que la intercalación por defecto de MySQL al buscar el usuario
+        final long wait = limiter.tryAcquire(username.toLowerCase(Locale.ROOT), System.nanoTime());
+        if (wait != 0) {
+            rejections.get("username:" + endpoint).increment();
+            throw new RateLimitExceededException(RateLimiter.toRetryAfterSeconds(wait));
+        }
+    }
+
+    // Libera la memoria de los cubos inactivos (ya llenos)
+    @Scheduled(fixedDelayString = "${auth.rate-limit.sweep-interval:PT1M}")
+    public void evictIdle() {
+        final long now = System.nanoTime();
+        ipLimiters.values().forEach(limiter -> limiter.evictIdle(now));
+        usernameLimiters.values().forEach(limiter -> limiter.evictIdle(now));
+    }
+}
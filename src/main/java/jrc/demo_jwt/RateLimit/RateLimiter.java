@@ -0,0 +1,84 @@
+package jrc.demo_jwt.RateLimit;
+
+import java.util.concurrent.TimeUnit; // Unidades de tiempo
+import java.util.concurrent.atomic.AtomicLong; // Estado de cada cubo, actualizado con CAS
+
+import com.github.benmanes.caffeine.cache.Cache; // Mapa concurrente acotado
+import com.github.benmanes.caffeine.cache.Caffeine; // Constructor de cachés Caffeine
+
+// Cubos de tokens por clave (IP o nombre de usuario) implementados con GCRA (Generic Cell Rate Algorithm):
+// cada cubo es un único AtomicLong con el "instante teórico de llegada" (TAT) de la siguiente solicitud, así que
+// comprobar y consumir es una lectura y un CAS, sin bloqueos ni hilos de recarga.
+// El número de claves está acotado (una avalancha de IP falsas o rotativas no hace crecer el mapa sin límite) y un
+// cubo que sale del mapa se marca como retirado con un CAS: la solicitud que lo tuviera en la mano repite con un
+// cubo nuevo en lugar de consumir en uno que ya nadie ve
+final class RateLimiter {
+
+    private static final long RETIRED = Long.MIN_VALUE; // TAT de un cubo eliminado del mapa
+    private static final long RETRY = -1; // tryAcquire(bucket, now) encontró el cubo retirado
+
+    private final long emissionInterval; // Nanosegundos que tarda en reponerse un token
+    private final long burstTolerance; // Adelanto máximo sobre el ritmo sostenido (capacidad del cubo - 1 tokens)
+    private final Cache<String, AtomicLong> buckets; // TAT por clave
+
+    // Hasta "limit" solicitudes de golpe y, a partir de ahí, "limit" por cada "periodNanos"; como mucho "maxKeys"
+    // cubos (al superarlo, Caffeine descarta primero las claves poco frecuentes)
+    RateLimiter(int limit, long periodNanos, long maxKeys) {
+        this.emissionInterval = Math.max(1, periodNanos / limit);
+        this.burstTolerance = emissionInterval * (limit - 1);
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(maxKeys)
+            .<String, AtomicLong>evictionListener((key, bucket, cause) -> bucket.set(RETIRED)) // Dentro de la eliminación
+            .build();
+    }
+
+    // Consume un token de la clave. Devuelve 0 si se permite o los nanosegundos que faltan para el siguiente token
+    long tryAcquire(String key, long now) {
+        while (true) {
+            final AtomicLong bucket = buckets.get(key, k -> new AtomicLong(now));
+            final long wait = tryAcquire(bucket, now);
+            if (wait != RETRY) {
+                return wait;
+            }
+            buckets.asMap().remove(key, bucket); // Retirado a medias por evictIdle: se completa y se repite
+        }
+    }
+
+    private long tryAcquire(AtomicLong bucket, long now) {
+        while (true) {
+            final long stored = bucket.get();
+            if (stored == RETIRED) {
+                return RETRY;
+            }
+            final long tat = Math.max(stored, now);
+            final long wait = tat - now - burstTolerance;
+            if (wait > 0) {
+                return wait; // Cubo vacío: no se modifica el estado
+            }
+            if (bucket.compareAndSet(stored, tat + emissionInterval)) {
+                return 0;
+            }
+        }
+    }
+
+    // Elimina los cubos que ya se han rellenado por completo: equivalen a uno nuevo y solo ocupan memoria.
+    // El CAS a RETIRED falla si otra solicitud consumió entre la lectura y la eliminación, y el cubo se conserva
+    void evictIdle(long now) {
+        buckets.asMap().forEach((key, bucket) -> {
+            final long stored = bucket.get();
+            if (stored <= now && (stored == RETIRED || bucket.compareAndSet(stored, RETIRED))) {
+                buckets.asMap().remove(key, bucket);
+            }
+        });
+    }
+
+    long size() {
+        buckets.cleanUp(); // Aplica las eliminaciones por tamaño pendientes
+        return buckets.estimatedSize();
+    }
+
+    // Segundos enteros, redondeando hacia arriba, para el encabezado Retry-After
+    static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,47 @@
+package jrc.demo_jwt.Reactive;
+
+import org.springframework.http.HttpHeaders; // Clase para manejar encabezados HTTP
+import org.springframework.security.authentication.BadCredentialsException; // Token mal formado
+import org.springframework.security.core.Authentication; // Autenticación (aún sin validar)
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken; // Transporta el token sin validar
+import org.springframework.security.web.server.authentication.ServerAuthenticationConverter; // Convierte la solicitud en una autenticación
+import org.springframework.web.server.ServerWebExchange; // Solicitud y respuesta reactivas
+
+import jrc.demo_jwt.jwt.BearerTokenExtractor; // Análisis del encabezado Authorization
+import jrc.demo_jwt.jwt.JwtProperties; // Configuración de JWT (longitud máxima del token)
+import reactor.core.publisher.Mono; // Publicador reactivo de 0 o 1 elementos
+
+// Extrae el JWT del encabezado "Authorization: Bearer ..." con el mismo análisis que JwtAuthenticationFilter:
+// un token mal formado se rechaza (401) sin llegar a decodificarse
+class BearerTokenServerAuthenticationConverter implements ServerAuthenticationConverter {
+
+    private final JwtProperties jwtProperties; // Longitud máxima del token
+
+    BearerTokenServerAuthenticationConverter(JwtProperties jwtProperties) {
+        this.jwtProperties = jwtProperties;
+    }
+
+    @Override
+    public Mono<Authentication> convert(ServerWebExchange exchange) {
+        final String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        final int tokenStart = BearerTokenExtractor.tokenStart(authHeader, jwtProperties.getMaxTokenLength());
+        if (tokenStart == BearerTokenExtractor.NOT_BEARER) {
+            return Mono.empty(); // Sin token: la solicitud continúa sin autenticar
+        }
+        if (tokenStart == BearerTokenExtractor.MALFORMED) {
+            return Mono.error(BearerTokenServerAuthenticationConverter::malformed);
+        }
+        final String token = authHeader.substring(tokenStart);
+        return Mono.just(new PreAuthenticatedAuthenticationToken(token, token)); // Credenciales = token sin validar
+    }
+
+    // Una instancia por rechazo, sin traza de pila (BadCredentialsException no expone el constructor que la desactiva)
+    private static BadCredentialsException malformed() {
+        return new BadCredentialsException("Malformed token") {
+            @Override
+            public synchronized Throwable fillInStackTrace() {
+                return this;
+            }
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package jrc.demo_jwt.Reactive;
+
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService; // Servicio reactivo para cargar detalles de usuario
+import org.springframework.security.core.userdetails.UserDetails; // Representa los detalles de un usuario
+import org.springframework.security.core.userdetails.UserDetailsService; // Servicio bloqueante para cargar detalles de usuario
+import org.springframework.security.core.userdetails.UsernameNotFoundException; // Excepción lanzada cuando no se encuentra un usuario
+
+import reactor.core.publisher.Mono; // Publicador reactivo de 0 o 1 elementos
+import reactor.core.scheduler.Schedulers; // Planificadores de Reactor
+
+// Adapta el UserDetailsService JPA (bloqueante) a la API reactiva. La consulta se ejecuta en el planificador
+// boundedElastic para no bloquear nunca los hilos del bucle de eventos de Netty
+class BlockingUserDetailsServiceAdapter implements ReactiveUserDetailsService {
+
+    private final UserDetailsService userDetailsService; // Servicio bloqueante (con caché) en el que se delega
+
+    BlockingUserDetailsServiceAdapter(UserDetailsService userDetailsService) {
+        this.userDetailsService = userDetailsService;
+    }
+
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        return Mono.fromCallable(() -> userDetailsService.loadUserByUsername(username))
+            .subscribeOn(Schedulers.boundedElastic())
+            .onErrorResume(UsernameNotFoundException.class, e -> Mono.empty()); // Usuario inexistente: vacío
+    }
+}
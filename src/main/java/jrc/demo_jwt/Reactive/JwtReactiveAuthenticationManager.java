@@ -0,0 +1,77 @@
+package jrc.demo_jwt.Reactive;
+
+import java.time.Instant; // Instante en el tiempo (UTC)
+import java.util.List; // Lista de comprobaciones resueltas
+
+import org.springframework.beans.factory.ObjectProvider; // Acceso perezoso y opcional a beans
+import org.springframework.security.authentication.BadCredentialsException; // Token inválido
+import org.springframework.security.authentication.ReactiveAuthenticationManager; // Gestor de autenticación reactivo
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken; // Autenticación resultante
+import org.springframework.security.core.Authentication; // Autenticación de entrada (token sin validar)
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService; // Servicio reactivo para cargar detalles de usuario
+
+import io.jsonwebtoken.JwtException; // Error de verificación del JWT
+import jrc.demo_jwt.jwt.JwtProperties; // Configuración de JWT (modo sin estado)
+import jrc.demo_jwt.jwt.VerifiedToken; // Token ya verificado
+import jrc.demo_jwt.jwt.VerifiedTokenCache; // Caché de tokens verificados
+import jrc.demo_jwt.jwt.VerifiedTokenCheck; // Comprobaciones adicionales sobre el token
+import reactor.core.publisher.Mono; // Publicador reactivo de 0 o 1 elementos
+
+// Equivalente reactivo de JwtAuthenticationFilter: verifica el token con la misma caché y el mismo JwtService,
+// aplica las mismas comprobaciones y, fuera del modo sin estado, carga el usuario sin bloquear
+class JwtReactiveAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private final VerifiedTokenCache verifiedTokenCache; // Caché de tokens ya verificados (compartida con la pila servlet)
+    private final ReactiveUserDetailsService userDetailsService; // Servicio reactivo para cargar detalles de usuario
+    private final JwtProperties jwtProperties; // Configuración de JWT (modo sin estado)
+    private final ObjectProvider<VerifiedTokenCheck> tokenChecks; // Comprobaciones opcionales sobre el token verificado
+    private List<VerifiedTokenCheck> resolvedChecks; // Comprobaciones resueltas en la primera solicitud (no en cada una)
+
+    JwtReactiveAuthenticationManager(VerifiedTokenCache verifiedTokenCache, ReactiveUserDetailsService userDetailsService,
+            JwtProperties jwtProperties, ObjectProvider<VerifiedTokenCheck> tokenChecks) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.userDetailsService = userDetailsService;
+        this.jwtProperties = jwtProperties;
+        this.tokenChecks = tokenChecks;
+    }
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        final VerifiedToken verifiedToken;
+        try {
+            // La verificación solo usa CPU (y suele resolverse en la caché), por lo que se hace en el propio hilo
+            verifiedToken = verifiedTokenCache.verify((String) authentication.getCredentials());
+        } catch (JwtException | IllegalArgumentException e) {
+            return Mono.error(new BadCredentialsException("Invalid token", e));
+        }
+
+        if (verifiedToken.getUsername() == null || verifiedToken.isExpired(Instant.now())
+                || !isAllowed(verifiedToken)) {
+            return Mono.error(new BadCredentialsException("Invalid token"));
+        }
+
+        // Modo sin estado: si el token incluye las autoridades, no se consulta la base de datos
+        if (jwtProperties.isStateless() && !verifiedToken.getAuthorities().isEmpty()) {
+            return Mono.just(new UsernamePasswordAuthenticationToken(
+                verifiedToken.getUsername(), null, verifiedToken.getAuthorities()));
+        }
+
+        return userDetailsService.findByUsername(verifiedToken.getUsername())
+            .switchIfEmpty(Mono.error(() -> new BadCredentialsException("Invalid token")))
+            .map(userDetails -> new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+    }
+
+    // Aplica las comprobaciones adicionales registradas (por ejemplo, revocación), igual que JwtAuthenticationFilter
+    private boolean isAllowed(VerifiedToken verifiedToken) {
+        List<VerifiedTokenCheck> checks = resolvedChecks;
+        if (checks == null) {
+            checks = resolvedChecks = tokenChecks.orderedStream().toList();
+        }
+        for (VerifiedTokenCheck check : checks) {
+            if (!check.isAllowed(verifiedToken)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
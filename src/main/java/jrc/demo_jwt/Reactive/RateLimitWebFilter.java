@@ -0,0 +1,41 @@
+package jrc.demo_jwt.Reactive;
+
+import java.net.InetSocketAddress; // Dirección remota del cliente
+
+import org.springframework.http.HttpHeaders; // Clase para manejar encabezados HTTP
+import org.springframework.http.HttpStatus; // Códigos de estado HTTP
+import org.springframework.web.server.ServerWebExchange; // Solicitud y respuesta reactivas
+import org.springframework.web.server.WebFilter; // Filtro reactivo
+import org.springframework.web.server.WebFilterChain; // Cadena de filtros reactiva
+
+import jrc.demo_jwt.RateLimit.RateLimitService; // Limitadores configurados por endpoint
+import reactor.core.publisher.Mono; // Publicador reactivo de 0 o 1 elementos
+
+// Equivalente reactivo de RateLimitFilter: límite por IP para los endpoints de "/auth/"
+class RateLimitWebFilter implements WebFilter {
+
+    private static final String PREFIX = "/auth/"; // Rutas limitadas
+
+    private final RateLimitService rateLimitService; // Limitadores configurados por endpoint
+
+    RateLimitWebFilter(RateLimitService rateLimitService) {
+        this.rateLimitService = rateLimitService;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        final String path = exchange.getRequest().getPath().pathWithinApplication().value();
+        final InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (!path.startsWith(PREFIX) || remoteAddress == null) {
+            return chain.filter(exchange);
+        }
+        final long retryAfterSeconds = rateLimitService.tryAcquireIp(
+            path.substring(PREFIX.length()), remoteAddress.getAddress().getHostAddress());
+        if (retryAfterSeconds > 0) {
+            exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            return exchange.getResponse().setComplete();
+        }
+        return chain.filter(exchange);
+    }
+}
@@ -0,0 +1,107 @@
+package jrc.demo_jwt.Reactive;
+
+import java.util.concurrent.RejectedExecutionException; // Lanzada cuando el ejecutor de hashing está saturado
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication; // Activa el controlador solo en la pila reactiva
+import org.springframework.http.HttpHeaders; // Clase para manejar encabezados HTTP
+import org.springframework.http.HttpStatus; // Códigos de estado HTTP
+import org.springframework.http.ResponseEntity; // Representa una respuesta HTTP completa
+import org.springframework.security.core.AuthenticationException; // Credenciales incorrectas
+import org.springframework.web.bind.annotation.ExceptionHandler; // Asocia un método a un tipo de excepción
+import org.springframework.web.bind.annotation.PostMapping; // Anotación para mapear solicitudes POST
+import org.springframework.web.bind.annotation.RequestBody; // Vincula el cuerpo de la solicitud a un objeto Java
+import org.springframework.web.bind.annotation.RequestHeader; // Vincula un encabezado de la solicitud a un parámetro
+import org.springframework.web.bind.annotation.RequestMapping; // Anotación para mapear rutas a nivel de clase
+import org.springframework.web.bind.annotation.RestController; // Marca esta clase como un controlador REST
+
+import io.jsonwebtoken.JwtException; // Token de acceso no válido al cerrar sesión
+import jrc.demo_jwt.Auth.AuthResponse; // Respuesta con el token generado
+import jrc.demo_jwt.Auth.AuthService; // Lógica de autenticación y registro (compartida con la pila servlet)
+import jrc.demo_jwt.Auth.InvalidRefreshTokenException; // Token de refresco desconocido, expirado o ya utilizado
+import jrc.demo_jwt.Auth.LoginRquest; // Solicitud de inicio de sesión
+import jrc.demo_jwt.Auth.PasswordHashingProperties; // Configuración del ejecutor de hashing
+import jrc.demo_jwt.Auth.RefreshRequest; // Solicitud de renovación del token de acceso
+import jrc.demo_jwt.Auth.RegisterRequest; // Solicitud de registro
+import jrc.demo_jwt.RateLimit.RateLimitExceededException; // Límite de solicitudes superado
+import jrc.demo_jwt.jwt.BearerTokenExtractor; // Análisis del encabezado Authorization
+import jrc.demo_jwt.jwt.JwtProperties; // Configuración de JWT
+import lombok.RequiredArgsConstructor; // Genera un constructor para los campos finales requeridos
+import reactor.core.publisher.Mono; // Publicador reactivo de 0 o 1 elementos
+import reactor.core.scheduler.Schedulers; // Planificadores de Reactor
+
+// Versión reactiva de AuthController. BCrypt se sigue ejecutando en el ejecutor de hashing de AuthService,
+// nunca en el bucle de eventos
+@RestController
+@RequestMapping("/auth")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveAuthController {
+
+    private final AuthService authService; // Servicio que contiene la lógica de autenticación y registro
+    private final JwtProperties jwtProperties; // Longitud máxima del token de acceso
+    private final PasswordHashingProperties hashingProperties; // Configuración del ejecutor de hashing
+
+    @PostMapping(value = "login") // Mapea solicitudes POST a "/auth/login"
+    public Mono<AuthResponse> login(@RequestBody LoginRquest request) {
+        return Mono.fromFuture(() -> authService.loginAsync(request));
+    }
+
+    @PostMapping(value = "register") // Mapea solicitudes POST a "/auth/register"
+    public Mono<AuthResponse> register(@RequestBody RegisterRequest request) {
+        return Mono.fromFuture(() -> authService.registerAsync(request));
+    }
+
+    @PostMapping(value = "refresh") // Mapea solicitudes POST a "/auth/refresh"
+    public Mono<AuthResponse> refresh(@RequestBody RefreshRequest request) {
+        // Sin BCrypt, pero con acceso JDBC bloqueante: fuera del bucle de eventos
+        return Mono.fromCallable(() -> authService.refresh(request)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @PostMapping(value = "logout") // Mapea solicitudes POST a "/auth/logout"
+    public Mono<ResponseEntity<Void>> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+            @RequestBody(required = false) RefreshRequest request) {
+        final String accessToken = BearerTokenExtractor.extract(authorization, jwtProperties.getMaxTokenLength());
+        if (accessToken == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+        // La revocación se persiste con JDBC bloqueante: fuera del bucle de eventos
+        return Mono.fromRunnable(() -> authService.logout(accessToken,
+                request != null ? request.getRefreshToken() : null))
+            .subscribeOn(Schedulers.boundedElastic())
+            .thenReturn(ResponseEntity.noContent().build());
+    }
+
+    // Ejecutor de BCrypt saturado: rechazo rápido con 503 y Retry-After (igual que AuthExceptionHandler)
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Void> handleSaturation(RejectedExecutionException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(hashingProperties.getRetryAfterSeconds()))
+            .build();
+    }
+
+    // Token de refresco no válido: 401, igual que AuthExceptionHandler
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<Void> handleInvalidRefreshToken(InvalidRefreshTokenException ex) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    // Token de acceso no válido al cerrar sesión: 401, igual que AuthExceptionHandler
+    @ExceptionHandler(JwtException.class)
+    public ResponseEntity<Void> handleInvalidAccessToken(JwtException ex) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    // Credenciales incorrectas: 403, el mismo código que devuelve la pila servlet
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<Void> handleAuthenticationFailure(AuthenticationException ex) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
+
+    // Límite de solicitudes por nombre de usuario superado: 429 con Retry-After (igual que AuthExceptionHandler)
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Void> handleRateLimit(RateLimitExceededException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .build();
+    }
+}
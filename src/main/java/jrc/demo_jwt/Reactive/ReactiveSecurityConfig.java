@@ -0,0 +1,99 @@
+package jrc.demo_jwt.Reactive;
+
+import java.net.InetSocketAddress; // Dirección local de la conexión (puerto)
+
+import org.springframework.beans.factory.ObjectProvider; // Acceso perezoso y opcional a beans
+import org.springframework.beans.factory.annotation.Value; // Inyecta el puerto de gestión
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication; // Activa la configuración solo en la pila reactiva
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory; // Servidor Netty (no bloqueante)
+import org.springframework.context.annotation.Bean; // Marca un método como proveedor de un bean gestionado por Spring
+import org.springframework.context.annotation.Configuration; // Indica que esta clase contiene configuraciones de Spring
+import org.springframework.http.HttpStatus; // Códigos de estado HTTP
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity; // Habilita la seguridad en WebFlux
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder; // Posiciones de los filtros de seguridad
+import org.springframework.security.config.web.server.ServerHttpSecurity; // Configuración de seguridad reactiva
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService; // Servicio reactivo para cargar detalles de usuario
+import org.springframework.security.web.server.SecurityWebFilterChain; // Cadena de filtros de seguridad reactiva
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter; // Filtro de autenticación reactivo
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint; // Responde con un código de estado
+import org.springframework.security.web.server.authentication.ServerAuthenticationEntryPointFailureHandler; // Maneja fallos de autenticación
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository; // No guarda el contexto (sin sesión)
+import org.springframework.security.web.server.util.matcher.NegatedServerWebExchangeMatcher; // Invierte un selector de solicitudes
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher; // Selector de solicitudes
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers; // Selectores de solicitudes por ruta
+
+import jrc.demo_jwt.RateLimit.RateLimitService; // Límite de solicitudes por IP para "/auth/"
+import jrc.demo_jwt.User.CachingUserDetailsService; // UserDetailsService con caché delante del repositorio
+import jrc.demo_jwt.jwt.JwtProperties; // Configuración de JWT
+import jrc.demo_jwt.jwt.VerifiedTokenCache; // Caché de tokens verificados
+import jrc.demo_jwt.jwt.VerifiedTokenCheck; // Comprobaciones adicionales sobre el token
+
+// Pila reactiva (WebFlux sobre Netty), alternativa a SecurityConfig. Se activa con
+// spring.main.web-application-type=reactive y comparte JwtService, la caché de tokens y la caché de usuarios
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    @Bean // Netty en lugar de Tomcat: un bucle de eventos atiende miles de conexiones keep-alive sin un hilo por conexión
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean // Adaptador no bloqueante sobre el UserDetailsService JPA: la consulta se ejecuta fuera del bucle de eventos
+    public ReactiveUserDetailsService reactiveUserDetailsService(CachingUserDetailsService userDetailsService) {
+        return new BlockingUserDetailsServiceAdapter(userDetailsService);
+    }
+
+    @Bean // Autentica solicitudes con un JWT en el encabezado Authorization
+    public JwtReactiveAuthenticationManager jwtReactiveAuthenticationManager(VerifiedTokenCache verifiedTokenCache,
+            ReactiveUserDetailsService reactiveUserDetailsService, JwtProperties jwtProperties,
+            ObjectProvider<VerifiedTokenCheck> tokenChecks) {
+        return new JwtReactiveAuthenticationManager(verifiedTokenCache, reactiveUserDetailsService, jwtProperties, tokenChecks);
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+            JwtReactiveAuthenticationManager jwtReactiveAuthenticationManager, JwtProperties jwtProperties,
+            RateLimitService rateLimitService, @Value("${management.server.port:-1}") int managementPort) {
+        // Filtro JWT: convierte el encabezado en una autenticación y la valida con el gestor reactivo
+        AuthenticationWebFilter jwtFilter = new AuthenticationWebFilter(jwtReactiveAuthenticationManager);
+        jwtFilter.setServerAuthenticationConverter(new BearerTokenServerAuthenticationConverter(jwtProperties));
+        // Igual que JwtAuthenticationFilter: "/auth/" no depende del token de acceso que envíe el cliente
+        jwtFilter.setRequiresAuthenticationMatcher(
+            new NegatedServerWebExchangeMatcher(ServerWebExchangeMatchers.pathMatchers("/auth/**")));
+        jwtFilter.setSecurityContextRepository(NoOpServerSecurityContextRepository.getInstance()); // Sin estado
+        jwtFilter.setAuthenticationFailureHandler(
+            new ServerAuthenticationEntryPointFailureHandler(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)));
+
+        return http
+            .csrf(csrf -> csrf.disable()) // Igual que en la pila servlet: API sin cookies
+            .httpBasic(httpBasic -> httpBasic.disable())
+            .formLogin(formLogin -> formLogin.disable())
+            .securityContextRepository(NoOpServerSecurityContextRepository.getInstance()) // Sin sesión
+            .authorizeExchange(exchange ->
+                exchange
+                    .pathMatchers("/auth/**").permitAll() // Acceso sin autenticación a "/auth/"
+                    .pathMatchers("/actuator/health", "/livez", "/readyz").permitAll() // Sondas de salud
+                    // Métricas solo en el puerto de gestión (interno); si el actuator comparte el puerto público, requieren ADMIN
+                    .matchers(managementPort(managementPort)).permitAll()
+                    .pathMatchers("/actuator/**").hasAuthority("ADMIN")
+                    .pathMatchers("/.well-known/jwks.json").permitAll() // Claves públicas de firma (JWKS)
+                    .pathMatchers("/api/v1/admin/**").hasAuthority("ADMIN") // Administración de usuarios
+                    .anyExchange().authenticated() // Autenticación para cualquier otra solicitud
+            )
+            .addFilterAt(jwtFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+            .addFilterBefore(new RateLimitWebFilter(rateLimitService), SecurityWebFiltersOrder.AUTHENTICATION) // Antes del JWT
+            .build();
+    }
+
+    // Solicitudes recibidas en el puerto de gestión (management.server.port)
+    private static ServerWebExchangeMatcher managementPort(int port) {
+        return exchange -> {
+            final InetSocketAddress local = exchange.getRequest().getLocalAddress();
+            return local != null && local.getPort() == port
+                ? ServerWebExchangeMatcher.MatchResult.match()
+                : ServerWebExchangeMatcher.MatchResult.notMatch();
+        };
+    }
+}
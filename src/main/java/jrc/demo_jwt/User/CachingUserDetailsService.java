@@ -0,0 +1,103 @@
+package jrc.demo_jwt.User;
+
+import java.util.Optional; // Contenedor de un valor que puede no existir
+
+import org.springframework.security.core.userdetails.UserDetails; // Representa los detalles de un usuario
+import org.springframework.security.core.userdetails.UserDetailsPasswordService; // Actualización del hash tras un login
+import org.springframework.security.core.userdetails.UserDetailsService; // Servicio para cargar detalles de usuario
+import org.springframework.security.core.userdetails.UsernameNotFoundException; // Excepción lanzada cuando no se encuentra un usuario
+
+import com.github.benmanes.caffeine.cache.Cache; // Caché concurrente de alto rendimiento
+import com.github.benmanes.caffeine.cache.Caffeine; // Constructor de cachés Caffeine
+import com.github.benmanes.caffeine.cache.Expiry; // Política de expiración por entrada
+import com.github.benmanes.caffeine.cache.stats.CacheStats; // Contadores de aciertos, fallos y desalojos
+
+import io.micrometer.core.instrument.MeterRegistry; // Registro de métricas
+import io.micrometer.core.instrument.Timer; // Temporizador de Micrometer
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics; // Publica las estadísticas de Caffeine como métricas
+
+// UserDetailsService con una caché en memoria delante de UserRepository.findByUsername.
+// Las búsquedas sin resultado también se guardan (por menos tiempo) para que una avalancha
+// de nombres de usuario inexistentes no llegue a la base de datos.
+// También guarda los hashes recalculados por DaoAuthenticationProvider cuando el almacenado está desactualizado.
+public class CachingUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    private final UserRepository userRepository; // Repositorio para acceder a los datos de los usuarios
+    private final Cache<String, Optional<User>> cache; // Nombre de usuario -> usuario (o vacío si no existe)
+    private final Timer lookupTimer; // Latencia de la consulta a la base de datos (solo en fallos de caché)
+
+    public CachingUserDetailsService(UserRepository userRepository, UserCacheProperties properties,
+            MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumSize()) // Limita el número de entradas
+            .expireAfter(new UserExpiry(properties.getTtl().toNanos(), properties.getNegativeTtl().toNanos()))
+            .recordStats() // Registra aciertos, fallos y desalojos
+            .build();
+        this.lookupTimer = Timer.builder("user.lookup")
+            .description("Consulta de un usuario por nombre en la base de datos")
+            .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users"); // cache.gets, cache.evictions, ...
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        Optional<User> user = cache.getIfPresent(username);
+        if (user == null) {
+            // La consulta se hace fuera de la caché: Cache.get(key, loader) ejecuta el loader dentro de un bloque
+            // synchronized de ConcurrentHashMap, lo que fijaría (pinning) un hilo virtual durante la espera de JDBC
+            user = lookupTimer.record(() -> userRepository.findByUsername(username));
+            cache.put(username, user);
+        }
+        return user.orElseThrow(() -> new UsernameNotFoundException("User not found")); // Lanza una excepción si el usuario no existe
+    }
+
+    // Guarda el hash recalculado con el formato y el coste actuales (una sola sentencia UPDATE).
+    // Se devuelve una copia: la instancia en caché puede estar siendo leída por otros hilos
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        evict(user.getUsername());
+        if (!(user instanceof User current)) {
+            return loadUserByUsername(user.getUsername());
+        }
+        return User.builder()
+            .id(current.getId())
+            .username(current.getUsername())
+            .password(newPassword)
+            .firstname(current.getFirstname())
+            .lastname(current.getLastname())
+            .country(current.getCountry())
+            .role(current.getRole())
+            .build();
+    }
+
+    // Invalida la entrada de un usuario (positiva o negativa) tras crearlo o modificarlo
+    public void evict(String username) {
+        cache.invalidate(username);
+    }
+
+    // Contadores de aciertos, fallos y desalojos de la caché
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    // Expiración por entrada: los usuarios encontrados viven "ttl" y las búsquedas vacías "negativeTtl"
+    private record UserExpiry(long ttlNanos, long negativeTtlNanos) implements Expiry<String, Optional<User>> {
+
+        @Override
+        public long expireAfterCreate(String username, Optional<User> user, long currentTime) {
+            return user.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String username, Optional<User> user, long currentTime, long currentDuration) {
+            return expireAfterCreate(username, user, currentTime); // Un valor nuevo reinicia su vida
+        }
+
+        @Override
+        public long expireAfterRead(String username, Optional<User> user, long currentTime, long currentDuration) {
+            return currentDuration; // Leer una entrada no prolonga su vida
+        }
+    }
+}
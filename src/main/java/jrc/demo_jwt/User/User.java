@@ -5,16 +5,21 @@ import java.util.List; // Implementación de una lista
 
 import org.springframework.security.core.GrantedAuthority; // Representa una autoridad otorgada a un usuario
 import org.springframework.security.core.authority.SimpleGrantedAuthority; // Implementación simple de GrantedAuthority
+import org.hibernate.annotations.Cache; // Región de la caché de segundo nivel de la entidad
+import org.hibernate.annotations.CacheConcurrencyStrategy; // Estrategia de concurrencia de la caché
 import org.springframework.security.core.userdetails.UserDetails; // Interfaz que define los detalles de un usuario
 
+import jakarta.persistence.Cacheable; // Permite guardar la entidad en la caché de segundo nivel (si está activada)
 import jakarta.persistence.Column; // Marca un campo como una columna en la base de datos
 import jakarta.persistence.Entity; // Marca esta clase como una entidad JPA
 import jakarta.persistence.EnumType; // Define cómo se almacenan los valores de un enum en la base de datos
 import jakarta.persistence.Enumerated; // Marca un campo como un enum persistente
 import jakarta.persistence.GeneratedValue; // Indica que el valor de este campo será generado automáticamente
+import jakarta.persistence.GenerationType; // Estrategias de generación de identificadores
 import jakarta.persistence.Id; // Marca un campo como la clave primaria
+import jakarta.persistence.Index; // Define un índice de la tabla
+import jakarta.persistence.SequenceGenerator; // Define el generador de identificadores
 import jakarta.persistence.Table; // Define la tabla asociada a esta entidad
-import jakarta.persistence.UniqueConstraint; // Define restricciones únicas en la tabla
 import lombok.AllArgsConstructor; // Genera un constructor con todos los campos
 import lombok.Builder; // Proporciona un patrón de construcción para la clase
 import lombok.Data; // Genera getters, setters, equals, hashCode y toString
@@ -25,12 +30,18 @@ import lombok.NoArgsConstructor; // Genera un constructor sin argumentos
 @AllArgsConstructor // Genera un constructor con todos los campos como parámetros
 @NoArgsConstructor // Genera un constructor sin argumentos
 @Entity // Marca esta clase como una entidad JPA
-@Table(name="user", uniqueConstraints = {@UniqueConstraint(columnNames = {"username"})}) 
-// Define la tabla "user" en la base de datos y asegura que el campo "username" sea único
+@Table(name="user", indexes = {@Index(name = "ux_user_username", columnList = "username", unique = true)})
+// Define la tabla "user" en la base de datos; el índice único sobre "username" sirve el login y evita duplicados
+@Cacheable // Caché de segundo nivel (solo si hibernate.cache.use_second_level_cache=true, ver application.properties)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // Las actualizaciones invalidan la entrada sin lecturas obsoletas
 public class User implements UserDetails { // Implementa la interfaz UserDetails para integrarse con Spring Security
 
     @Id // Marca este campo como la clave primaria
-    @GeneratedValue // Indica que el valor será generado automáticamente
+    // Identificadores reservados de 50 en 50 (en MySQL, sobre la tabla "user_seq"): Hibernate conoce el id antes del
+    // INSERT y puede agrupar las inserciones en lotes JDBC, cosa que IDENTITY (AUTO_INCREMENT) impide.
+    // Es el mismo generador que Hibernate 6 elegía implícitamente, ahora explícito para que no cambie sin querer
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 50)
     Integer id; // Identificador único del usuario
 
     @Column(nullable = false) // Define que este campo no puede ser nulo en la base de datos
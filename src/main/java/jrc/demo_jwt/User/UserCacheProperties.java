@@ -0,0 +1,15 @@
+package jrc.demo_jwt.User;
+
+import java.time.Duration; // Duración de vida de las entradas
+
+import org.springframework.boot.context.properties.ConfigurationProperties; // Vincula propiedades "user.cache.*" a esta clase
+
+import lombok.Data; // Genera getters, setters, equals, hashCode y toString
+
+@Data
+@ConfigurationProperties(prefix = "user.cache") // Propiedades de configuración con el prefijo "user.cache"
+public class UserCacheProperties {
+    private long maximumSize = 10_000; // Número máximo de usuarios en caché (0 la desactiva)
+    private Duration ttl = Duration.ofMinutes(5); // Vida de un usuario encontrado
+    private Duration negativeTtl = Duration.ofSeconds(10); // Vida de una búsqueda sin resultado
+}
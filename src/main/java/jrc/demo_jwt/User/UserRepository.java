@@ -1,9 +1,31 @@
 package jrc.demo_jwt.User;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
+
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
 
 
 public interface UserRepository extends JpaRepository<User,Integer>{
-    Optional<User> findByUsername(String username); // busca un usuario por el nombre de usuario
+    // busca un usuario por el nombre de usuario (con la caché de consultas de Hibernate activada, la resuelve sin SQL)
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    Optional<User> findByUsername(String username);
+
+    @Query("select u.username from User u where u.username in :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames); // nombres de usuario ya registrados
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :password where u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password); // reemplaza el hash de la contraseña
 }
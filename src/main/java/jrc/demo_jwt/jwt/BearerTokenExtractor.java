@@ -0,0 +1,60 @@
+package jrc.demo_jwt.jwt;
+
+// Analiza el encabezado "Authorization" sin expresiones regulares ni cadenas intermedias y descarta, antes de
+// cualquier decodificación Base64 o análisis JSON, los tokens que no pueden ser un JWS compacto: longitud
+// excesiva, caracteres fuera del alfabeto Base64url, un número de segmentos distinto de tres o segmentos vacíos.
+// Rechazar un token basura cuesta así un recorrido de la cadena, sin excepciones ni asignaciones
+public final class BearerTokenExtractor {
+
+    public static final int NOT_BEARER = -1; // Sin encabezado o con otro esquema: la solicitud sigue sin autenticar
+    public static final int MALFORMED = -2; // Esquema Bearer con un token que no puede ser válido: 401
+
+    private static final String SCHEME = "Bearer"; // Esquema de autenticación (RFC 6750), sin distinguir mayúsculas
+
+    private BearerTokenExtractor() {
+    }
+
+    // Devuelve la posición del encabezado donde empieza el token, NOT_BEARER o MALFORMED
+    public static int tokenStart(String header, int maxTokenLength) {
+        if (header == null || header.length() <= SCHEME.length()
+                || !header.regionMatches(true, 0, SCHEME, 0, SCHEME.length())) {
+            return NOT_BEARER;
+        }
+        int start = SCHEME.length();
+        if (header.charAt(start) != ' ') {
+            return NOT_BEARER; // Por ejemplo, "BearerXYZ": no es el esquema Bearer
+        }
+        while (start < header.length() && header.charAt(start) == ' ') {
+            start++;
+        }
+        final int length = header.length() - start;
+        if (length == 0 || length > maxTokenLength) {
+            return MALFORMED;
+        }
+
+        int dots = 0;
+        char previous = '.'; // Un punto inicial equivale a un primer segmento vacío
+        for (int i = start; i < header.length(); i++) {
+            final char c = header.charAt(i);
+            if (c == '.') {
+                if (previous == '.' || ++dots > 2) {
+                    return MALFORMED; // Segmento vacío o más de tres segmentos
+                }
+            } else if (!isBase64Url(c)) {
+                return MALFORMED;
+            }
+            previous = c;
+        }
+        return dots == 2 && previous != '.' ? start : MALFORMED;
+    }
+
+    // Extrae el token del encabezado, o null si no hay un token Bearer bien formado
+    public static String extract(String header, int maxTokenLength) {
+        final int start = tokenStart(header, maxTokenLength);
+        return start >= 0 ? header.substring(start) : null;
+    }
+
+    private static boolean isBase64Url(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+    }
+}
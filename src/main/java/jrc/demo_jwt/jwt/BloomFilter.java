@@ -0,0 +1,69 @@
+package jrc.demo_jwt.jwt;
+
+import java.util.concurrent.atomic.AtomicLongArray; // Palabras de bits con lecturas y escrituras atómicas
+
+// Filtro de Bloom de tamaño fijo para cadenas. Responde "seguro que no está" o "puede que esté": nunca da falsos
+// negativos, por lo que un "no" evita consultar el conjunto exacto. Las lecturas no bloquean; los bits solo
+// pasan de 0 a 1, así que para eliminar elementos hay que construir un filtro nuevo
+final class BloomFilter {
+
+    private final AtomicLongArray words; // Bits del filtro, 64 por palabra
+    private final long numBits; // Número total de bits
+    private final int numHashes; // Número de posiciones por elemento
+
+    // Dimensiona el filtro para el número de elementos esperado y la tasa de falsos positivos deseada
+    BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        final long n = Math.max(1, expectedInsertions);
+        final double ln2 = Math.log(2);
+        final long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2));
+        final int numWords = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+        this.words = new AtomicLongArray(numWords);
+        this.numBits = (long) numWords * 64;
+        this.numHashes = (int) Math.max(1, Math.round((double) numBits / n * ln2));
+    }
+
+    void put(String key) {
+        final long hash = hash(key);
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            final long bit = index(h1, h2, i);
+            final long mask = 1L << bit; // El desplazamiento de long solo usa los 6 bits bajos
+            words.getAndAccumulate((int) (bit >>> 6), mask, (word, m) -> word | m);
+        }
+    }
+
+    boolean mightContain(String key) {
+        final long hash = hash(key);
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            final long bit = index(h1, h2, i);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Doble hashing (Kirsch-Mitzenmacher): las k posiciones se derivan de dos hashes de 32 bits
+    private long index(int h1, int h2, int i) {
+        final int combined = h1 + i * h2;
+        return (combined < 0 ? ~combined : combined) % numBits;
+    }
+
+    // FNV-1a de 64 bits sobre los caracteres, seguido del mezclador final de MurmurHash3 para repartir los bits
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,18 @@
+package jrc.demo_jwt.jwt;
+
+import io.jsonwebtoken.JwtException; // Error de verificación del JWT
+
+// Token rechazado por su "exp" antes de verificar la firma (ver TokenExpiration). A diferencia de
+// ExpiredJwtException no lleva cabecera ni claims, que no se han llegado a analizar. Se crea una instancia por
+// rechazo, sin traza de pila: JwtException no expone el constructor que la desactiva
+final class ExpiredTokenException extends JwtException {
+
+    ExpiredTokenException() {
+        super("JWT expired");
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
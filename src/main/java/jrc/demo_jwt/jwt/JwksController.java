@@ -0,0 +1,27 @@
+package jrc.demo_jwt.jwt;
+
+import java.time.Duration; // Duración de la caché HTTP
+import java.util.Map; // Interfaz para mapas
+
+import org.springframework.http.CacheControl; // Encabezado Cache-Control
+import org.springframework.http.ResponseEntity; // Representa una respuesta HTTP completa
+import org.springframework.web.bind.annotation.GetMapping; // Anotación para mapear solicitudes GET
+import org.springframework.web.bind.annotation.RestController; // Marca esta clase como un controlador REST
+
+import lombok.RequiredArgsConstructor; // Genera un constructor para los campos finales requeridos
+
+// Publica las claves públicas de firma (JWKS, RFC 7517) para que otros servicios verifiquen los tokens
+// localmente, sin compartir secretos ni llamar al servicio de autenticación en cada solicitud
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final JwtKeyRing keyRing; // Anillo de claves de firma
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic()) // Los verificadores pueden cachearlo
+            .body(Map.of("keys", keyRing.publicJwks()));
+    }
+}
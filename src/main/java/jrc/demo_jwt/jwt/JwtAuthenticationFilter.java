@@ -1,6 +1,11 @@
 package jrc.demo_jwt.jwt;
 
 import java.io.IOException;
+import java.time.Instant; // Instante en el tiempo (UTC)
+import java.util.List; // Lista de comprobaciones resueltas
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication; // Activa el bean solo en la pila servlet
+import org.springframework.beans.factory.ObjectProvider; // Acceso perezoso y opcional a beans
 /* import java.net.http.HttpHeaders; */
 import org.springframework.http.HttpHeaders; // Clase para manejar encabezados HTTP
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken; // Representa un token de autenticación basado en nombre de usuario y contraseña
@@ -9,9 +14,9 @@ import org.springframework.security.core.userdetails.UserDetails; // Representa
 import org.springframework.security.core.userdetails.UserDetailsService; // Servicio para cargar detalles de usuario
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource; // Fuente para construir detalles de autenticación web
 import org.springframework.stereotype.Component; // Marca esta clase como un componente de Spring
-import org.springframework.util.StringUtils; // Utilidad para trabajar con cadenas
 import org.springframework.web.filter.OncePerRequestFilter; // Filtro que se ejecuta una vez por solicitud
 
+import io.jsonwebtoken.JwtException; // Error de verificación del JWT
 import jakarta.servlet.FilterChain; // Representa la cadena de filtros
 import jakarta.servlet.ServletException; // Excepción lanzada por un servlet
 import jakarta.servlet.http.HttpServletRequest; // Representa una solicitud HTTP
@@ -19,42 +24,65 @@ import jakarta.servlet.http.HttpServletResponse; // Representa una respuesta HTT
 import lombok.RequiredArgsConstructor; // Genera un constructor con los campos finales requeridos
 
 @Component // Marca esta clase como un componente gestionado por Spring
-@RequiredArgsConstructor // Genera un constructor para los campos finales (jwtService y userDetailsService)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET) // Filtro servlet (la pila reactiva usa JwtReactiveAuthenticationManager)
+@RequiredArgsConstructor // Genera un constructor para los campos finales
 public class JwtAuthenticationFilter extends OncePerRequestFilter { // Extiende OncePerRequestFilter para crear un filtro personalizado
 
+    // Desafío de la respuesta 401 (RFC 6750)
+    private static final String INVALID_TOKEN_CHALLENGE = "Bearer error=\"invalid_token\"";
+
     private final JwtService jwtService; // Servicio para manejar operaciones relacionadas con JWT
+    private final VerifiedTokenCache verifiedTokenCache; // Caché de tokens ya verificados
     private final UserDetailsService userDetailsService; // Servicio para cargar detalles de usuario
+    private final JwtProperties jwtProperties; // Configuración de JWT (modo sin estado)
+    private final ObjectProvider<VerifiedTokenCheck> tokenChecks; // Comprobaciones opcionales sobre el token verificado
+    private List<VerifiedTokenCheck> resolvedChecks; // Comprobaciones resueltas en la primera solicitud (no en cada una)
+
+    // Los endpoints de "/auth/" no usan el contexto de seguridad: un token de acceso caducado que el cliente siga
+    // enviando no debe impedir /auth/refresh ni /auth/login (/auth/logout verifica el token por su cuenta)
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getServletPath().startsWith("/auth/");
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        // Extrae el token JWT de la solicitud
-        final String token = getTokenFromRequest(request);
-        final String username;
+        // Localiza el token en el encabezado "Authorization" sin crear cadenas intermedias
+        final String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        final int tokenStart = BearerTokenExtractor.tokenStart(authHeader, jwtProperties.getMaxTokenLength());
 
-        // Si no hay token, continúa con el siguiente filtro
-        if (token == null) {
+        // Si no hay token Bearer, continúa con el siguiente filtro
+        if (tokenStart == BearerTokenExtractor.NOT_BEARER) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        // Obtiene el nombre de usuario del token
-        username = jwtService.getUsernameFromToken(token);
+        // Token con una forma imposible para un JWS: se rechaza sin decodificarlo
+        if (tokenStart == BearerTokenExtractor.MALFORMED) {
+            reject(response);
+            return;
+        }
 
-        // Si el nombre de usuario no es nulo y no hay autenticación en el contexto de seguridad
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            // Carga los detalles del usuario desde el servicio
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        // Obtiene el token verificado de la caché o verifica la firma y lee los claims una sola vez
+        final VerifiedToken verifiedToken;
+        try {
+            verifiedToken = verifiedTokenCache.verify(authHeader.substring(tokenStart));
+        } catch (JwtException | IllegalArgumentException e) {
+            // Firma inválida, token expirado o contenido no válido (ya contabilizados por JwtService)
+            reject(response);
+            return;
+        }
+        final String username = verifiedToken.getUsername();
 
-            // Verifica si el token es válido
-            if (jwtService.isTokenValid(token, userDetails)) {
-                // Crea un token de autenticación basado en los detalles del usuario
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities());
+        // Si el nombre de usuario no es nulo, no hay autenticación en el contexto de seguridad
+        // y ninguna comprobación adicional rechaza el token
+        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && isAllowed(verifiedToken)) {
+            UsernamePasswordAuthenticationToken authToken = authenticate(verifiedToken);
 
+            if (authToken != null) {
                 // Establece detalles adicionales de autenticación
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 // Establece el token de autenticación en el contexto de seguridad
@@ -66,14 +94,53 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter { // Extiende
         filterChain.doFilter(request, response);
     }
 
-    // Método para extraer el token JWT del encabezado de autorización de la solicitud
-    private String getTokenFromRequest(HttpServletRequest request) {
-        final String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION); // Obtiene el encabezado "Authorization"
+    // Construye la autenticación a partir del token verificado, o devuelve null si el token no es válido
+    private UsernamePasswordAuthenticationToken authenticate(VerifiedToken verifiedToken) {
+        // Modo sin estado: si el token incluye las autoridades, no se consulta la base de datos
+        if (jwtProperties.isStateless() && !verifiedToken.getAuthorities().isEmpty()) {
+            if (verifiedToken.isExpired(Instant.now())) {
+                return null;
+            }
+            return new UsernamePasswordAuthenticationToken(
+                    verifiedToken.getUsername(),
+                    null,
+                    verifiedToken.getAuthorities());
+        }
+
+        // Carga los detalles del usuario desde el servicio
+        UserDetails userDetails = userDetailsService.loadUserByUsername(verifiedToken.getUsername());
+
+        // Verifica si el token es válido sin volver a analizarlo
+        if (!jwtService.isTokenValid(verifiedToken, userDetails)) {
+            return null;
+        }
+
+        // Crea un token de autenticación basado en los detalles del usuario
+        return new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities());
+    }
 
-        // Verifica si el encabezado tiene texto y comienza con "Bearer"
-        if (StringUtils.hasText(authHeader) && authHeader.startsWith("Bearer")) {
-            return authHeader.substring(7); // Devuelve el token sin el prefijo "Bearer "
+    // Aplica las comprobaciones adicionales registradas (por ejemplo, revocación); sin comprobaciones, el token se acepta
+    private boolean isAllowed(VerifiedToken verifiedToken) {
+        List<VerifiedTokenCheck> checks = resolvedChecks;
+        if (checks == null) {
+            // Resolver los beans en cada solicitud costaría más que la propia comprobación
+            checks = resolvedChecks = tokenChecks.orderedStream().toList();
+        }
+        for (VerifiedTokenCheck check : checks) {
+            if (!check.isAllowed(verifiedToken)) {
+                return false;
+            }
         }
-        return null; // Si no cumple las condiciones, devuelve null
+        return true;
+    }
+
+    // Respuesta 401 mínima: sin cuerpo ni redirección a la página de error, para que rechazar tokens
+    // inválidos (incluida una avalancha de tokens basura) cueste casi lo mismo que no tener token
+    private static void reject(HttpServletResponse response) {
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, INVALID_TOKEN_CHALLENGE);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,173 @@
+package jrc.demo_jwt.jwt;
+
+import java.nio.charset.StandardCharsets; // Codificación de la cabecera
+import java.security.GeneralSecurityException; // Error de la JCA al firmar
+import java.security.Key; // Representa una clave criptográfica
+import java.security.KeyPair; // Par de claves asimétricas
+import java.security.PrivateKey; // Clave privada (ES256, EdDSA)
+import java.security.PublicKey; // Clave pública (EdDSA)
+import java.security.Signature; // Firma asimétrica de la JCA
+import java.security.interfaces.ECPublicKey; // Clave pública de curva elíptica
+import java.time.Instant; // Instante en el tiempo (UTC)
+import java.util.Base64; // Codificación Base64url de la cabecera y la firma
+import java.util.LinkedHashMap; // Mapa con orden de inserción
+import java.util.Map; // Interfaz para mapas
+
+import javax.crypto.Mac; // Firma HMAC de la JCA
+import javax.crypto.SecretKey; // Clave secreta simétrica (HMAC)
+
+import io.jsonwebtoken.security.Jwks; // Representación JWK de las claves
+import io.jsonwebtoken.security.SecureDigestAlgorithm; // Algoritmo de firma (HMAC o asimétrico)
+
+// Una clave del anillo de claves: identificador (kid), algoritmo, clave de firma y clave de verificación.
+// Las claves retiradas solo sirven para verificar hasta "retireAt" (solapamiento durante la rotación).
+// La emisión no pasa por jjwt: la cabecera, que solo depende de la clave, se codifica una vez, y cada firma usa
+// su propio Mac (copia de uno ya inicializado) o Signature, sin estado por hilo que no sirve con hilos virtuales.
+final class JwtKey {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding(); // Segmentos del JWS
+
+    private final String kid; // Identificador publicado en la cabecera "kid" (null para la clave HMAC heredada)
+    private final SecureDigestAlgorithm<Key, Key> algorithm; // Algoritmo de firma
+    private final Key signingKey; // Clave privada (o secreta) para firmar
+    private final Key verificationKey; // Clave pública (o secreta) para verificar
+    private final Instant createdAt; // Momento de creación de la clave
+    private final Instant retireAt; // A partir de este instante ya no verifica tokens (null: clave vigente)
+    private final byte[] encodedHeader; // Cabecera codificada en Base64url, seguida del punto
+    private final Signer signer; // Firma cabecera y payload (seguro entre hilos)
+
+    @SuppressWarnings("unchecked")
+    private JwtKey(String kid, SecureDigestAlgorithm<?, ?> algorithm, Key signingKey, Key verificationKey,
+            Instant createdAt, Instant retireAt) {
+        this.kid = kid;
+        this.algorithm = (SecureDigestAlgorithm<Key, Key>) algorithm;
+        this.signingKey = signingKey;
+        this.verificationKey = verificationKey;
+        this.createdAt = createdAt;
+        this.retireAt = retireAt;
+        this.encodedHeader = encodeHeader(kid, this.algorithm.getId());
+        this.signer = newSigner();
+    }
+
+    // Clave simétrica: la misma clave firma y verifica, por lo que no se publica en el JWKS
+    static JwtKey symmetric(String kid, SecureDigestAlgorithm<SecretKey, SecretKey> algorithm, SecretKey key,
+            Instant createdAt) {
+        return new JwtKey(kid, algorithm, key, key, createdAt, null);
+    }
+
+    // Clave asimétrica: se firma con la privada y se publica la pública
+    static JwtKey asymmetric(String kid, SecureDigestAlgorithm<?, ?> algorithm, KeyPair keyPair, Instant createdAt) {
+        return new JwtKey(kid, algorithm, keyPair.getPrivate(), keyPair.getPublic(), createdAt, null);
+    }
+
+    // Copia de la clave que deja de firmar y que verifica tokens solo hasta "retireAt"
+    JwtKey retiredAt(Instant retireAt) {
+        return new JwtKey(kid, algorithm, signingKey, verificationKey, createdAt, retireAt);
+    }
+
+    // Construye el token compacto "cabecera.payload.firma" a partir del payload ya codificado en Base64url
+    String sign(byte[] encodedPayload) {
+        final byte[] signature;
+        try {
+            signature = ENCODER.encode(signer.sign(encodedHeader, encodedPayload));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e); // La clave se generó para este algoritmo
+        }
+        final byte[] token = new byte[encodedHeader.length + encodedPayload.length + 1 + signature.length];
+        System.arraycopy(encodedHeader, 0, token, 0, encodedHeader.length);
+        System.arraycopy(encodedPayload, 0, token, encodedHeader.length, encodedPayload.length);
+        token[encodedHeader.length + encodedPayload.length] = '.';
+        System.arraycopy(signature, 0, token, encodedHeader.length + encodedPayload.length + 1, signature.length);
+        return new String(token, StandardCharsets.ISO_8859_1); // Solo caracteres ASCII: una copia sin decodificar
+    }
+
+    // {"alg":"...","kid":"..."} en Base64url, con el punto que la separa del payload
+    private static byte[] encodeHeader(String kid, String algorithm) {
+        final String json = kid == null
+            ? "{\"alg\":\"" + algorithm + "\"}"
+            : "{\"alg\":\"" + algorithm + "\",\"kid\":\"" + kid + "\"}";
+        return (ENCODER.encodeToString(json.getBytes(StandardCharsets.UTF_8)) + '.').getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // Firma "cabecera.payload" sin concatenar ambos segmentos
+    @FunctionalInterface
+    private interface Signer {
+        byte[] sign(byte[] encodedHeader, byte[] encodedPayload) throws GeneralSecurityException;
+    }
+
+    // Firmante sin estado compartido. HS256 clona un Mac ya inicializado (copiar el estado con la clave procesada
+    // cuesta menos que init); ES256 y EdDSA crean una Signature por firma, un coste pequeño frente al de la propia
+    // firma asimétrica. ES256 usa el formato IEEE P1363 (R || S), que es el que exige JWS, en lugar de DER
+    private Signer newSigner() {
+        try {
+            return switch (algorithm.getId()) {
+                case "HS256" -> {
+                    final Mac prototype = Mac.getInstance("HmacSHA256");
+                    prototype.init(signingKey);
+                    yield (header, payload) -> {
+                        final Mac mac = copy(prototype);
+                        mac.update(header);
+                        mac.update(payload);
+                        return mac.doFinal();
+                    };
+                }
+                case "ES256" -> signer("SHA256withECDSAinP1363Format");
+                case "EdDSA" -> signer("Ed25519");
+                default -> throw new IllegalStateException("Unsupported signing algorithm: " + algorithm.getId());
+            };
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Copia del Mac inicializado; si el proveedor no admite clone(), se inicializa uno nuevo
+    private Mac copy(Mac prototype) throws GeneralSecurityException {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            final Mac mac = Mac.getInstance(prototype.getAlgorithm(), prototype.getProvider());
+            mac.init(signingKey);
+            return mac;
+        }
+    }
+
+    private Signer signer(String jcaAlgorithm) throws GeneralSecurityException {
+        Signature.getInstance(jcaAlgorithm).initSign((PrivateKey) signingKey); // Falla al crear la clave, no al firmar
+        return (header, payload) -> {
+            final Signature signature = Signature.getInstance(jcaAlgorithm);
+            signature.initSign((PrivateKey) signingKey);
+            signature.update(header);
+            signature.update(payload);
+            return signature.sign();
+        };
+    }
+
+    boolean isRetired(Instant now) {
+        return retireAt != null && !now.isBefore(retireAt);
+    }
+
+    boolean isAsymmetric() {
+        return signingKey != verificationKey;
+    }
+
+    // Representación JWK pública (RFC 7517) para el endpoint JWKS
+    Map<String, Object> toPublicJwk() {
+        Map<String, Object> jwk = new LinkedHashMap<>(verificationKey instanceof ECPublicKey ecKey
+            ? Jwks.builder().key(ecKey).id(kid).algorithm(algorithm.getId()).build()
+            : Jwks.builder().octetKey((PublicKey) verificationKey).id(kid).algorithm(algorithm.getId()).build());
+        jwk.put("use", "sig");
+        return jwk;
+    }
+
+    String getKid() {
+        return kid;
+    }
+
+    Key getVerificationKey() {
+        return verificationKey;
+    }
+
+    Instant getCreatedAt() {
+        return createdAt;
+    }
+}
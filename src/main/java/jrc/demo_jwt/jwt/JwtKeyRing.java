@@ -0,0 +1,237 @@
+package jrc.demo_jwt.jwt;
+
+import java.nio.charset.StandardCharsets; // Payload de la firma de prueba
+import java.security.GeneralSecurityException; // Error de la JCA al decodificar una clave
+import java.security.Key; // Representa una clave criptográfica
+import java.security.KeyFactory; // Decodifica las claves configuradas
+import java.security.KeyPair; // Par de claves asimétricas
+import java.security.spec.PKCS8EncodedKeySpec; // Formato de la clave privada
+import java.security.spec.X509EncodedKeySpec; // Formato de la clave pública
+import java.time.Duration; // Duración entre dos instantes
+import java.time.Instant; // Instante en el tiempo (UTC)
+import java.util.Base64; // Decodificación de las claves configuradas
+import java.util.HashMap; // Implementación de un mapa hash
+import java.util.List; // Interfaz para listas
+import java.util.Map; // Interfaz para mapas
+import java.util.UUID; // Identificadores de clave aleatorios
+
+import org.springframework.scheduling.annotation.Scheduled; // Ejecución periódica
+import org.springframework.stereotype.Component; // Marca esta clase como un componente de Spring
+
+import io.jsonwebtoken.JwsHeader; // Cabecera de un JWT firmado
+import io.jsonwebtoken.JwtException; // Firma de prueba no verificable
+import io.jsonwebtoken.LocatorAdapter; // Localiza la clave de verificación a partir de la cabecera
+import io.jsonwebtoken.Jwts; // Algoritmos de firma (Jwts.SIG)
+import io.jsonwebtoken.io.Decoders; // Decodificador para claves en formato Base64
+import io.jsonwebtoken.security.Jwks; // Curvas para generar pares de claves
+import io.jsonwebtoken.security.Keys; // Utilidad para generar claves criptográficas
+import io.jsonwebtoken.security.SecureDigestAlgorithm; // Algoritmo de firma de las claves configuradas
+import io.jsonwebtoken.security.SignatureException; // Firma no verificable
+
+// Anillo de claves de firma. Firma con la clave vigente (HS256, ES256 o EdDSA) e indica su "kid" en la cabecera;
+// verifica localizando la clave por "kid" en un mapa inmutable (un acceso O(1), sin bloqueos en la ruta caliente).
+// Al rotar, la clave anterior sigue verificando durante la vida de un token (solapamiento) y después se descarta.
+// Las claves públicas se publican en /.well-known/jwks.json para que otros servicios verifiquen por su cuenta.
+// Las claves asimétricas se leen de jwt.keys, iguales en todos los nodos y tras un reinicio, y rotan según su
+// "activate-at"; generarlas en memoria (con rotación por jwt.key-rotation.interval) exige jwt.generated-keys.
+@Component
+public class JwtKeyRing extends LocatorAdapter<Key> {
+
+    private final JwtProperties properties; // Configuración de JWT (algoritmo, secreto, rotación)
+    private final JwtKey legacyKey; // Clave HMAC del secreto compartido: verifica los tokens sin "kid"
+    private final List<JwtKey> configuredKeys; // Claves de jwt.keys (vacía si se generan o con HS256)
+
+    private volatile JwtKey signingKey; // Clave vigente para firmar
+    private volatile Map<String, JwtKey> verificationKeys = Map.of(); // kid -> clave (copia en escritura)
+
+    public JwtKeyRing(JwtProperties properties) {
+        this.properties = properties;
+        this.legacyKey = JwtKey.symmetric(null, Jwts.SIG.HS256,
+            Keys.hmacShaKeyFor(Decoders.BASE64.decode(properties.getSecret())), Instant.now());
+        this.configuredKeys = properties.getKeys().stream().map(this::load).toList();
+        if (!configuredKeys.isEmpty()) {
+            if (properties.getKeyRotation().getInterval() != null) {
+                throw new IllegalStateException("jwt.key-rotation.interval requires jwt.generated-keys; "
+                    + "jwt.keys rotate with activate-at");
+            }
+            final Map<String, JwtKey> keys = new HashMap<>();
+            for (JwtKey key : configuredKeys) {
+                if (keys.put(key.getKid(), key) != null) {
+                    throw new IllegalArgumentException("Duplicate kid in jwt.keys: " + key.getKid());
+                }
+            }
+            verificationKeys = Map.copyOf(keys);
+            activate(Instant.now());
+        } else if (!"HS256".equals(properties.getAlgorithm()) && !properties.isGeneratedKeys()) {
+            throw new IllegalStateException("jwt.algorithm=" + properties.getAlgorithm() + " requires the signing keys "
+                + "shared by every node in jwt.keys (or jwt.generated-keys=true on a single node)");
+        } else {
+            rotate();
+        }
+    }
+
+    // Clave vigente para firmar tokens
+    public JwtKey getSigningKey() {
+        return signingKey;
+    }
+
+    // Crea una nueva clave de firma; la anterior verifica hasta que expiren los tokens que firmó.
+    // Con HS256 la clave es el secreto configurado, por lo que no hay nada que rotar.
+    public synchronized void rotate() {
+        if (!configuredKeys.isEmpty()) {
+            throw new IllegalStateException("jwt.keys rotate with activate-at");
+        }
+        final Instant now = Instant.now();
+        final JwtKey next = generate(properties.getAlgorithm(), now);
+        final Map<String, JwtKey> keys = new HashMap<>();
+        verificationKeys.forEach((kid, key) -> {
+            if (!key.isRetired(now)) {
+                keys.put(kid, key);
+            }
+        });
+        if (signingKey != null && signingKey != next && signingKey.getKid() != null) {
+            keys.put(signingKey.getKid(), signingKey.retiredAt(now.plus(properties.getExpiration())));
+        }
+        if (next.getKid() != null) {
+            keys.put(next.getKid(), next);
+        }
+        verificationKeys = Map.copyOf(keys);
+        signingKey = next;
+    }
+
+    // Rotación automática (si jwt.key-rotation.interval está configurado) y limpieza de claves retiradas
+    @Scheduled(fixedDelayString = "${jwt.key-rotation.check-interval:PT1M}")
+    public void rotateIfDue() {
+        rotateIfDue(Instant.now());
+    }
+
+    void rotateIfDue(Instant now) {
+        if (!configuredKeys.isEmpty()) {
+            activate(now);
+            return;
+        }
+        final Duration interval = properties.getKeyRotation().getInterval();
+        if (interval != null && !signingKey.getCreatedAt().plus(interval).isAfter(now)) {
+            rotate();
+        } else if (verificationKeys.values().stream().anyMatch(key -> key.isRetired(now))) {
+            pruneRetired(now); // Solo limpia: la clave de firma vigente no cambia
+        }
+    }
+
+    // Firma con la clave configurada más reciente cuyo "activate-at" ya ha pasado (su createdAt)
+    private void activate(Instant now) {
+        JwtKey next = null;
+        for (JwtKey key : configuredKeys) {
+            if (!key.getCreatedAt().isAfter(now) && (next == null || key.getCreatedAt().isAfter(next.getCreatedAt()))) {
+                next = key;
+            }
+        }
+        if (next == null) {
+            throw new IllegalStateException("No jwt.keys entry is active yet");
+        }
+        signingKey = next;
+    }
+
+    // Reconstruye el mapa de verificación sin las claves retiradas, sin generar una nueva clave de firma
+    private synchronized void pruneRetired(Instant now) {
+        final Map<String, JwtKey> keys = new HashMap<>();
+        verificationKeys.forEach((kid, key) -> {
+            if (!key.isRetired(now)) {
+                keys.put(kid, key);
+            }
+        });
+        verificationKeys = Map.copyOf(keys);
+    }
+
+    // Claves públicas vigentes y en solapamiento, en formato JWK
+    public List<Map<String, Object>> publicJwks() {
+        final Instant now = Instant.now();
+        return verificationKeys.values().stream()
+            .filter(key -> key.isAsymmetric() && !key.isRetired(now))
+            .map(JwtKey::toPublicJwk)
+            .toList();
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        final String kid = header.getKeyId();
+        if (kid == null) {
+            return legacyKey.getVerificationKey(); // Tokens HS256 sin "kid"
+        }
+        final JwtKey key = verificationKeys.get(kid);
+        if (key == null || key.isRetired(Instant.now())) {
+            throw unknownKey();
+        }
+        return key.getVerificationKey();
+    }
+
+    // "kid" desconocido o retirado: se rechaza antes de verificar la firma. Una instancia por rechazo, sin traza de
+    // pila (SignatureException no expone el constructor que la desactiva)
+    private static SignatureException unknownKey() {
+        return new SignatureException("Unknown or retired signing key") {
+            @Override
+            public synchronized Throwable fillInStackTrace() {
+                return this;
+            }
+        };
+    }
+
+    private JwtKey generate(String algorithm, Instant now) {
+        return switch (algorithm) {
+            case "HS256" -> legacyKey;
+            case "ES256" -> JwtKey.asymmetric(newKid(), Jwts.SIG.ES256, Jwts.SIG.ES256.keyPair().build(), now);
+            case "EdDSA" -> JwtKey.asymmetric(newKid(), Jwts.SIG.EdDSA, Jwks.CRV.Ed25519.keyPair().build(), now);
+            default -> throw new IllegalArgumentException("Unsupported jwt.algorithm: " + algorithm);
+        };
+    }
+
+    // Par de claves de jwt.keys. Firma y verifica un token de prueba: una clave privada que no corresponde a la
+    // pública se detecta al arrancar y no al verificar los tokens en otro nodo
+    private JwtKey load(JwtProperties.SigningKey key) {
+        if (key.getKid() == null || key.getKid().isBlank()) {
+            throw new IllegalArgumentException("jwt.keys entry without kid");
+        }
+        final SecureDigestAlgorithm<?, ?> algorithm;
+        final String keyAlgorithm;
+        switch (properties.getAlgorithm()) {
+            case "ES256" -> {
+                algorithm = Jwts.SIG.ES256;
+                keyAlgorithm = "EC";
+            }
+            case "EdDSA" -> {
+                algorithm = Jwts.SIG.EdDSA;
+                keyAlgorithm = "Ed25519";
+            }
+            default -> throw new IllegalStateException("jwt.keys requires jwt.algorithm ES256 or EdDSA");
+        }
+        final KeyPair keyPair;
+        try {
+            final KeyFactory factory = KeyFactory.getInstance(keyAlgorithm);
+            keyPair = new KeyPair(factory.generatePublic(new X509EncodedKeySpec(decode(key.getPublicKey()))),
+                factory.generatePrivate(new PKCS8EncodedKeySpec(decode(key.getPrivateKey()))));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid key pair in jwt.keys: " + key.getKid(), e);
+        }
+        final JwtKey jwtKey = JwtKey.asymmetric(key.getKid(), algorithm, keyPair,
+            key.getActivateAt() != null ? key.getActivateAt() : Instant.EPOCH);
+        try {
+            Jwts.parser().verifyWith(keyPair.getPublic()).build()
+                .parseSignedClaims(jwtKey.sign("e30".getBytes(StandardCharsets.US_ASCII))); // Payload {}
+        } catch (JwtException e) {
+            throw new IllegalArgumentException("Private and public keys in jwt.keys do not match: " + key.getKid(), e);
+        }
+        return jwtKey;
+    }
+
+    // Contenido DER de una clave en PEM (sin las líneas BEGIN/END) o en Base64
+    private static byte[] decode(String key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Missing key");
+        }
+        return Base64.getDecoder().decode(key.replaceAll("-----[^-]+-----|\\s", ""));
+    }
+
+    private static String newKid() {
+        return UUID.randomUUID().toString();
+    }
+}
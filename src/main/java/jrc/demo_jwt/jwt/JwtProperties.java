@@ -0,0 +1,82 @@
+package jrc.demo_jwt.jwt;
+
+import java.time.Duration; // Duración de vida de los tokens
+import java.time.Instant; // Activación de una clave configurada
+import java.util.ArrayList; // Lista de claves configuradas
+import java.util.List; // Interfaz para listas
+
+import org.springframework.boot.context.properties.ConfigurationProperties; // Vincula propiedades "jwt.*" a esta clase
+
+import lombok.Data; // Genera getters, setters, equals, hashCode y toString
+
+@Data
+@ConfigurationProperties(prefix = "jwt") // Propiedades de configuración con el prefijo "jwt"
+public class JwtProperties {
+
+    // Secreto HMAC (Base64) con el que se firman los tokens HS256 y se verifican los tokens sin "kid"
+    private String secret = "tQSx2ohpLmteo4wlHrslwTdnDMr01ZzXXNr24KicXvQAyoOghR7ITUdFrS0EvK8E";
+
+    // Algoritmo de firma: HS256 (secreto compartido), ES256 o EdDSA (Ed25519, claves publicadas en el JWKS)
+    private String algorithm = "HS256";
+
+    // Claves ES256 / EdDSA compartidas por todos los nodos: firma la más reciente cuyo "activate-at" ya ha pasado y
+    // todas verifican y se publican en el JWKS. Para rotar se añade la nueva con un "activate-at" posterior al
+    // despliegue en todos los nodos, y la anterior se retira de la lista cuando hayan expirado sus tokens
+    private List<SigningKey> keys = new ArrayList<>();
+
+    // Sin jwt.keys, genera las claves asimétricas en memoria al arrancar (y al rotar). Solo para un único nodo: otro
+    // nodo no conoce su "kid" y un reinicio invalida los tokens emitidos y cambia el JWKS
+    private boolean generatedKeys = false;
+
+    private Duration expiration = Duration.ofMinutes(24); // Vida de un token de acceso
+
+    private int maxTokenLength = 8192; // Longitud máxima aceptada para un token: los más largos se rechazan sin analizarlos
+
+    private final Refresh refresh = new Refresh(); // Tokens de refresco
+
+    private final KeyRotation keyRotation = new KeyRotation(); // Rotación de las claves asimétricas
+
+    // Modo sin estado: los tokens incluyen las autoridades del usuario y el filtro autentica sin consultar
+    // la base de datos. Un cambio de rol o una baja se reflejan, como tarde, al expirar el token
+    // (o antes mediante un VerifiedTokenCheck)
+    private boolean stateless = false;
+
+    // Incluye el identificador del usuario en el claim "uid" (VerifiedToken.userId) para servicios que lo necesiten
+    // sin buscar al usuario por nombre
+    private boolean userIdClaim = false;
+
+    private final Cache cache = new Cache(); // Configuración de la caché de tokens verificados
+
+    private final Revocation revocation = new Revocation(); // Lista de revocación de tokens de acceso
+
+    @Data
+    public static class Refresh {
+        private Duration expiration = Duration.ofDays(14); // Vida de un token de refresco (se renueva en cada uso)
+    }
+
+    @Data
+    public static class SigningKey {
+        private String kid; // Identificador publicado en la cabecera "kid" y en el JWKS
+        private String privateKey; // Clave privada PKCS#8 (PEM o Base64)
+        private String publicKey; // Clave pública X.509 (PEM o Base64)
+        private Instant activateAt; // Desde cuándo firma (null: desde el arranque); antes solo verifica y se publica
+    }
+
+    @Data
+    public static class KeyRotation {
+        // Cada cuánto se genera una nueva clave de firma (null: sin rotación automática). Solo con
+        // jwt.generated-keys: las claves configuradas rotan con su "activate-at"
+        private Duration interval;
+    }
+
+    @Data
+    public static class Revocation {
+        private long expectedRevocations = 100_000; // Capacidad del filtro de Bloom (se amplía al podar si se supera)
+        private double falsePositiveRate = 0.01; // Fracción de tokens no revocados que se confirman en el conjunto exacto
+    }
+
+    @Data
+    public static class Cache {
+        private long maximumSize = 10_000; // Número máximo de tokens verificados en caché (0 la desactiva)
+    }
+}
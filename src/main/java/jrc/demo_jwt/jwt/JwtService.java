@@ -1,47 +1,147 @@
 package jrc.demo_jwt.jwt;
 
-import java.security.Key; // Representa una clave criptográfica
+import java.time.Instant; // Instante en el tiempo (UTC)
+import java.util.Base64; // Codificación Base64url del identificador del token
+import java.util.Collection; // Representa una colección de elementos
 import java.util.Date; // Manejo de fechas
-import java.util.HashMap; // Implementación de un mapa hash
-import java.util.Map; // Interfaz para mapas
+import java.util.List; // Implementación de una lista
+import java.util.concurrent.ThreadLocalRandom; // Generador aleatorio sin contención entre hilos
+import java.util.concurrent.TimeUnit; // Unidades de tiempo
 import java.util.function.Function; // Interfaz funcional para manejar funciones
 
+import org.springframework.security.core.GrantedAuthority; // Representa una autoridad otorgada a un usuario
+import org.springframework.security.core.authority.SimpleGrantedAuthority; // Implementación simple de GrantedAuthority
 import org.springframework.security.core.userdetails.UserDetails; // Representa los detalles de un usuario
 import org.springframework.stereotype.Service; // Marca esta clase como un servicio gestionado por Spring
 
 import io.jsonwebtoken.Claims; // Representa los claims (información) dentro de un JWT
+import io.jsonwebtoken.ExpiredJwtException; // Token expirado
+import io.jsonwebtoken.JwtParser; // Parser inmutable y thread-safe de JWTs
 import io.jsonwebtoken.Jwts; // Clase principal para construir y analizar JWTs
-import io.jsonwebtoken.SignatureAlgorithm; // Algoritmos de firma para JWT
-import io.jsonwebtoken.io.Decoders; // Decodificador para claves en formato Base64
-import io.jsonwebtoken.security.Keys; // Utilidad para generar claves criptográficas
+import io.jsonwebtoken.MalformedJwtException; // Token mal formado
+import io.jsonwebtoken.UnsupportedJwtException; // Token de un tipo no admitido (por ejemplo, sin firma)
+import io.jsonwebtoken.security.SecurityException; // Firma inválida o clave de firma desconocida
+import io.micrometer.core.instrument.Counter; // Contador de Micrometer
+import io.micrometer.core.instrument.MeterRegistry; // Registro de métricas
+import io.micrometer.core.instrument.Timer; // Temporizador de Micrometer
+import jrc.demo_jwt.User.User; // Usuario de la aplicación (identificador para el claim "uid")
 
 @Service // Marca esta clase como un servicio gestionado por Spring
 public class JwtService {
 
-    private static final String SECRET_KEY = "tQSx2ohpLmteo4wlHrslwTdnDMr01ZzXXNr24KicXvQAyoOghR7ITUdFrS0EvK8E";
-    // Clave secreta utilizada para firmar y verificar los JWTs
+    // Nombre anterior del claim de autoridades (ahora "rol"): se sigue aceptando en los tokens emitidos antes del cambio
+    private static final String LEGACY_AUTHORITIES_CLAIM = "authorities";
 
-    // Genera un token JWT para un usuario
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding(); // Identificador compacto
+
+    private final JwtProperties properties; // Configuración de JWT
+    private final JwtKeyRing keyRing; // Claves de firma y verificación (localizadas por "kid")
+
+    // El parser se construye una sola vez al arrancar: es inmutable, seguro entre hilos y obtiene
+    // la clave de verificación del anillo de claves según el "kid" de cada token
+    private final JwtParser parser;
+
+    // Métricas de verificación (sin etiquetas por usuario para no disparar la cardinalidad)
+    private final Timer verifyTimer; // Latencia de verificación de firma y análisis de claims
+    private final Counter invalidSignatures; // Tokens con firma inválida
+    private final Counter expiredTokens; // Tokens expirados
+    private final Counter malformedTokens; // Tokens mal formados o no admitidos
+
+    public JwtService(JwtProperties properties, JwtKeyRing keyRing, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.keyRing = keyRing;
+        this.parser = Jwts.parser().keyLocator(keyRing).build();
+        this.verifyTimer = Timer.builder("jwt.verify")
+            .description("Verificación de firma y análisis de claims de un JWT")
+            .register(meterRegistry);
+        this.invalidSignatures = failureCounter(meterRegistry, "invalid_signature");
+        this.expiredTokens = failureCounter(meterRegistry, "expired");
+        this.malformedTokens = failureCounter(meterRegistry, "malformed");
+    }
+
+    private static Counter failureCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("jwt.verify.failures")
+            .description("Tokens rechazados durante la verificación")
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+
+    // Genera un token JWT para un usuario: claims escritos sin Map ni Jackson y firmados con la cabecera
+    // precalculada de la clave vigente del anillo (y su "kid")
     public String getToken(UserDetails user) {
-        return getToken(new HashMap<>(), user); // Llama al método sobrecargado con un mapa vacío de claims adicionales
+        final long now = System.currentTimeMillis() / 1000; // Los claims de fecha se expresan en segundos
+        return keyRing.getSigningKey().sign(TokenClaimsWriter.encode(
+            newTokenId(), // Identificador único ("jti") con el que el token se puede revocar
+            user.getUsername(), // Establece el nombre de usuario como sujeto del token
+            now, // Fecha de emisión del token
+            now + properties.getExpiration().toSeconds(), // Fecha de expiración (jwt.expiration)
+            // Modo sin estado: incluye las autoridades (el rol) para autenticar sin consultar la base de datos
+            properties.isStateless() ? user.getAuthorities() : null,
+            properties.isUserIdClaim() && user instanceof User appUser ? appUser.getId() : null));
+    }
+
+    // 128 bits aleatorios en Base64url (22 caracteres frente a los 36 de un UUID). El "jti" solo necesita ser único:
+    // la firma impide falsificarlo, por lo que no hace falta SecureRandom (compartido y con contención entre hilos)
+    private static String newTokenId() {
+        final byte[] id = new byte[16];
+        ThreadLocalRandom.current().nextBytes(id);
+        return ENCODER.encodeToString(id);
+    }
+
+    // Verifica la firma y analiza el token una única vez, devolviendo sus datos ya validados.
+    // Lanza una JwtException si el token está mal formado (o no tiene "exp"), tiene una firma inválida o ha expirado.
+    // Un token expirado se rechaza leyendo solo su "exp", sin verificar la firma ni analizar los claims
+    public VerifiedToken verify(String token) {
+        final long start = System.nanoTime();
+        final Claims claims;
+        try {
+            final long expiration = TokenExpiration.of(token);
+            if (expiration != TokenExpiration.UNKNOWN && expiration < System.currentTimeMillis() / 1000) {
+                throw new ExpiredTokenException(); // Sin firma ni claims que analizar
+            }
+            claims = getAllClaims(token); // Única verificación de firma y lectura del JSON
+            if (claims.getExpiration() == null) {
+                // Firmado con el secreto pero sin "exp" (emisor antiguo u otro servicio): no se acepta sin caducidad
+                throw new MalformedJwtException("JWT has no expiration");
+            }
+        } catch (ExpiredJwtException | ExpiredTokenException e) {
+            expiredTokens.increment();
+            throw e;
+        } catch (SecurityException e) {
+            invalidSignatures.increment();
+            throw e;
+        } catch (MalformedJwtException | UnsupportedJwtException | IllegalArgumentException e) {
+            malformedTokens.increment();
+            throw e;
+        } finally {
+            verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return VerifiedToken.builder()
+            .id(claims.getId())
+            .username(claims.getSubject())
+            .expiration(claims.getExpiration().toInstant())
+            .authorities(getAuthorities(claims))
+            .userId(claims.get(TokenClaimsWriter.USER_ID_CLAIM) instanceof Number userId ? userId.intValue() : null)
+            .build();
     }
 
-    // Genera un token JWT con claims adicionales
-    private String getToken(Map<String, Object> extraClaims, UserDetails user) {
-        return Jwts
-            .builder()
-            .setClaims(extraClaims) // Establece los claims adicionales
-            .setSubject(user.getUsername()) // Establece el nombre de usuario como sujeto del token
-            .setIssuedAt(new Date(System.currentTimeMillis())) // Fecha de emisión del token
-            .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 24)) // Fecha de expiración (24 minutos)
-            .signWith(getKey(), SignatureAlgorithm.HS256) // Firma el token con la clave secreta y el algoritmo HS256
-            .compact(); // Construye el token
+    // Verifica si un token ya verificado pertenece al usuario y sigue vigente (no vuelve a analizar el token)
+    public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+        return token.getUsername().equals(userDetails.getUsername()) && !token.isExpired(Instant.now());
     }
 
-    // Obtiene la clave criptográfica a partir de la clave secreta
-    private Key getKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY); // Decodifica la clave secreta en formato Base64
-        return Keys.hmacShaKeyFor(keyBytes); // Genera una clave HMAC-SHA a partir de los bytes decodificados
+    // Convierte el claim "rol" (o "authorities" en tokens anteriores), si existe, en una lista de autoridades
+    private static List<GrantedAuthority> getAuthorities(Claims claims) {
+        Object value = claims.get(TokenClaimsWriter.ROLES_CLAIM);
+        if (value == null) {
+            value = claims.get(LEGACY_AUTHORITIES_CLAIM);
+        }
+        if (!(value instanceof Collection<?> names)) {
+            return List.of(); // El token no incluye autoridades
+        }
+        return names.stream()
+            .<GrantedAuthority>map(name -> new SimpleGrantedAuthority(name.toString()))
+            .toList();
     }
 
     // Extrae el nombre de usuario del token
@@ -57,12 +157,9 @@ public class JwtService {
 
     // Obtiene todos los claims del token
     private Claims getAllClaims(String token) {
-        return Jwts
-            .parserBuilder()
-            .setSigningKey(getKey()) // Establece la clave de firma para verificar el token
-            .build()
-            .parseClaimsJws(token) // Analiza el token y obtiene los claims
-            .getBody();
+        return parser
+            .parseSignedClaims(token) // Verifica la firma con la clave del anillo y obtiene los claims
+            .getPayload();
     }
 
     // Obtiene un claim específico del token utilizando un resolver
@@ -0,0 +1,36 @@
+package jrc.demo_jwt.jwt;
+
+import java.time.Instant; // Instante en el tiempo (UTC)
+
+import jakarta.persistence.Column; // Marca un campo como una columna en la base de datos
+import jakarta.persistence.Entity; // Marca esta clase como una entidad JPA
+import jakarta.persistence.Id; // Marca un campo como la clave primaria
+import jakarta.persistence.Index; // Define un índice sobre la tabla
+import jakarta.persistence.Table; // Define la tabla asociada a esta entidad
+import lombok.AllArgsConstructor; // Genera un constructor con todos los campos
+import lombok.Builder; // Proporciona un patrón de construcción para la clase
+import lombok.Data; // Genera getters, setters, equals, hashCode y toString
+import lombok.NoArgsConstructor; // Genera un constructor sin argumentos
+
+// Token de acceso revocado antes de su expiración. La fila solo se conserva hasta que el token habría expirado
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "revoked_token", indexes = {
+    @Index(columnList = "expiresAt"), // Poda de las revocaciones que ya no son necesarias
+    @Index(columnList = "revokedAt") // Sincronización de las revocaciones hechas en otras instancias
+})
+public class RevokedToken {
+
+    @Id
+    @Column(length = 36)
+    String id; // Claim "jti" del token revocado
+
+    @Column(nullable = false)
+    Instant expiresAt; // Claim "exp" del token: a partir de aquí la revocación ya no es necesaria
+
+    @Column(nullable = false)
+    Instant revokedAt; // Momento de la revocación
+}
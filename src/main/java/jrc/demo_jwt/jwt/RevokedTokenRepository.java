@@ -0,0 +1,22 @@
+package jrc.demo_jwt.jwt;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    List<RevokedToken> findByExpiresAtAfter(Instant now); // revocaciones todavía vigentes (arranque)
+
+    List<RevokedToken> findByRevokedAtAfter(Instant since); // revocaciones recientes (sincronización)
+
+    @Transactional
+    @Modifying
+    @Query("delete from RevokedToken t where t.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now); // elimina las revocaciones de tokens ya expirados
+}
@@ -0,0 +1,69 @@
+package jrc.demo_jwt.jwt;
+
+import java.nio.charset.StandardCharsets; // Codificación UTF-8 del JSON
+import java.util.Base64; // Codificación Base64url
+import java.util.Collection; // Colección de autoridades
+
+import org.springframework.security.core.GrantedAuthority; // Representa una autoridad otorgada a un usuario
+
+// Escribe los claims de un token de acceso como JSON directamente en un StringBuilder, sin Map ni Jackson.
+// El conjunto de claims es fijo: los registrados (jti, sub, iat, exp) y, opcionalmente, las autoridades ("rol")
+// y el identificador del usuario ("uid"), con nombres cortos para reducir el tamaño del token
+final class TokenClaimsWriter {
+
+    static final String ROLES_CLAIM = "rol"; // Autoridades del usuario (modo sin estado)
+    static final String USER_ID_CLAIM = "uid"; // Identificador numérico del usuario (jwt.user-id-claim)
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding(); // Segmento del JWS
+    private static final char[] HEX = "0123456789abcdef".toCharArray(); // Escape de caracteres de control
+
+    private TokenClaimsWriter() {
+    }
+
+    // Devuelve el payload ya codificado en Base64url (el segmento central del token).
+    // authorities y userId son opcionales (null: el claim no se incluye); las fechas están en segundos
+    static byte[] encode(String id, String subject, long issuedAt, long expiration,
+            Collection<? extends GrantedAuthority> authorities, Integer userId) {
+        final StringBuilder json = new StringBuilder(96 + subject.length()
+            + (authorities == null ? 0 : authorities.size() * 24));
+        json.append("{\"jti\":");
+        appendString(json, id);
+        json.append(",\"sub\":");
+        appendString(json, subject);
+        json.append(",\"iat\":").append(issuedAt);
+        json.append(",\"exp\":").append(expiration);
+        if (authorities != null) {
+            json.append(",\"" + ROLES_CLAIM + "\":[");
+            boolean first = true;
+            for (GrantedAuthority authority : authorities) {
+                if (!first) {
+                    json.append(',');
+                }
+                appendString(json, authority.getAuthority());
+                first = false;
+            }
+            json.append(']');
+        }
+        if (userId != null) {
+            json.append(",\"" + USER_ID_CLAIM + "\":").append(userId.intValue());
+        }
+        json.append('}');
+        return ENCODER.encode(json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Cadena JSON: solo se escapan las comillas, la barra invertida y los caracteres de control (RFC 8259)
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+}
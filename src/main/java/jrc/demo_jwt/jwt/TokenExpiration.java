@@ -0,0 +1,101 @@
+package jrc.demo_jwt.jwt;
+
+import java.util.Base64; // Decodificación Base64url del payload
+
+// Lee el claim "exp" del payload de un JWS compacto sin verificar la firma ni construir los claims, para rechazar
+// un token expirado antes de pasarlo por jjwt (análisis JSON, verificación criptográfica y una excepción con su
+// traza). Solo sirve para rechazar: un "exp" vigente no dice nada de la firma y el token se verifica entero
+final class TokenExpiration {
+
+    static final long UNKNOWN = Long.MIN_VALUE; // Sin "exp" legible: decide jjwt
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder(); // Segmento del JWS
+    private static final byte[] EXP = {'e', 'x', 'p'};
+
+    private TokenExpiration() {
+    }
+
+    // Devuelve el "exp" (en segundos) del nivel superior del payload, o UNKNOWN si no se puede leer
+    static long of(String token) {
+        final int start = token.indexOf('.') + 1;
+        final int end = token.indexOf('.', start);
+        if (start == 0 || end < 0) {
+            return UNKNOWN;
+        }
+        final byte[] json;
+        try {
+            json = DECODER.decode(token.substring(start, end));
+        } catch (IllegalArgumentException e) {
+            return UNKNOWN; // jjwt lo rechazará como mal formado
+        }
+        int depth = 0;
+        for (int i = 0; i < json.length; i++) {
+            final byte b = json[i];
+            if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                depth--;
+            } else if (b == '"') {
+                final int close = closingQuote(json, i + 1);
+                if (close < 0) {
+                    return UNKNOWN;
+                }
+                if (depth == 1 && isExp(json, i + 1, close)) {
+                    int j = skipWhitespace(json, close + 1);
+                    if (j < json.length && json[j] == ':') {
+                        return number(json, skipWhitespace(json, j + 1));
+                    }
+                }
+                i = close;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    // Posición de las comillas que cierran la cadena que empieza en from (saltando los escapes)
+    private static int closingQuote(byte[] json, int from) {
+        for (int i = from; i < json.length; i++) {
+            if (json[i] == '\\') {
+                i++;
+            } else if (json[i] == '"') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isExp(byte[] json, int from, int to) {
+        if (to - from != EXP.length) {
+            return false;
+        }
+        for (int i = 0; i < EXP.length; i++) {
+            if (json[from + i] != EXP[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipWhitespace(byte[] json, int from) {
+        int i = from;
+        while (i < json.length && (json[i] == ' ' || json[i] == '\t' || json[i] == '\n' || json[i] == '\r')) {
+            i++;
+        }
+        return i;
+    }
+
+    // Entero no negativo de hasta 18 dígitos; cualquier otra forma (decimales, exponente) la resuelve jjwt
+    private static long number(byte[] json, int from) {
+        long value = 0;
+        int i = from;
+        while (i < json.length && json[i] >= '0' && json[i] <= '9' && i - from < 18) {
+            value = value * 10 + (json[i] - '0');
+            i++;
+        }
+        if (i == from || (i < json.length && (json[i] == '.' || json[i] == 'e' || json[i] == 'E'
+                || (json[i] >= '0' && json[i] <= '9')))) {
+            return UNKNOWN;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,102 @@
+package jrc.demo_jwt.jwt;
+
+import java.time.Duration; // Duración
+import java.time.Instant; // Instante en el tiempo (UTC)
+import java.util.concurrent.ConcurrentHashMap; // Mapa concurrente con lecturas sin bloqueo
+
+import org.springframework.scheduling.annotation.Scheduled; // Ejecución periódica
+import org.springframework.stereotype.Service; // Marca esta clase como un servicio gestionado por Spring
+
+import io.micrometer.core.instrument.Gauge; // Medidor de un valor instantáneo
+import io.micrometer.core.instrument.MeterRegistry; // Registro de métricas
+import jakarta.annotation.PostConstruct; // Inicialización tras la inyección de dependencias
+
+// Lista de revocación de tokens de acceso, consultada por JwtAuthenticationFilter en cada solicitud.
+// Un filtro de Bloom descarta en memoria la inmensa mayoría de tokens (los no revocados) sin tocar el mapa;
+// solo los positivos del filtro se confirman en el conjunto exacto. La tabla revoked_token conserva la lista
+// entre reinicios y entre instancias. Los tokens emitidos antes de existir el claim "jti" no se pueden revocar
+@Service
+public class TokenRevocationService implements VerifiedTokenCheck {
+
+    // Solapamiento de la sincronización para tolerar relojes ligeramente desfasados entre instancias
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);
+
+    private final RevokedTokenRepository revokedTokenRepository; // Persistencia de las revocaciones
+    private final JwtProperties.Revocation properties; // Dimensionado del filtro de Bloom
+
+    private final ConcurrentHashMap<String, Instant> revoked = new ConcurrentHashMap<>(); // "jti" -> expiración del token
+    private volatile BloomFilter filter; // Se sustituye entero al podar (un filtro de Bloom no admite borrados)
+    private Instant lastSync; // Última sincronización con la tabla
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository, JwtProperties jwtProperties,
+            MeterRegistry meterRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.properties = jwtProperties.getRevocation();
+        this.filter = newFilter(0);
+        Gauge.builder("jwt.revocation.size", revoked, ConcurrentHashMap::size)
+            .description("Tokens revocados todavía no expirados")
+            .register(meterRegistry);
+    }
+
+    // Carga al arrancar las revocaciones cuyos tokens todavía no han expirado
+    @PostConstruct
+    void warmUp() {
+        final Instant now = Instant.now();
+        revokedTokenRepository.findByExpiresAtAfter(now).forEach(token -> add(token.getId(), token.getExpiresAt()));
+        lastSync = now.minus(SYNC_OVERLAP);
+    }
+
+    @Override
+    public boolean isAllowed(VerifiedToken token) {
+        final String id = token.getId();
+        // Sin "jti" no hay nada que buscar; un "no" del filtro de Bloom es definitivo
+        return id == null || !filter.mightContain(id) || !revoked.containsKey(id);
+    }
+
+    // Revoca el token hasta su expiración. Devuelve false si el token no tiene "jti" y no se puede revocar
+    public boolean revoke(VerifiedToken token) {
+        if (token.getId() == null) {
+            return false;
+        }
+        revokedTokenRepository.save(RevokedToken.builder()
+            .id(token.getId())
+            .expiresAt(token.getExpiration())
+            .revokedAt(Instant.now())
+            .build());
+        add(token.getId(), token.getExpiration());
+        return true;
+    }
+
+    // Incorpora las revocaciones hechas por otras instancias desde la última sincronización
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval:PT30S}")
+    public void sync() {
+        final Instant now = Instant.now();
+        revokedTokenRepository.findByRevokedAtAfter(lastSync).forEach(token -> add(token.getId(), token.getExpiresAt()));
+        lastSync = now.minus(SYNC_OVERLAP);
+    }
+
+    // Elimina las revocaciones de tokens ya expirados (en la tabla y en memoria) y reconstruye el filtro
+    @Scheduled(fixedDelayString = "${jwt.revocation.prune-interval:PT10M}")
+    public void prune() {
+        final Instant now = Instant.now();
+        revokedTokenRepository.deleteExpired(now);
+        synchronized (this) {
+            revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+            final BloomFilter rebuilt = newFilter(revoked.size());
+            revoked.keySet().forEach(rebuilt::put);
+            filter = rebuilt;
+        }
+    }
+
+    // Sincronizado con prune(): una revocación no puede perderse mientras se reconstruye el filtro.
+    // El mapa se actualiza antes que el filtro, de modo que un positivo del filtro siempre se puede confirmar
+    private synchronized void add(String id, Instant expiresAt) {
+        revoked.put(id, expiresAt);
+        filter.put(id);
+    }
+
+    // Filtro dimensionado para la capacidad configurada, o el doble de las revocaciones actuales si son más
+    private BloomFilter newFilter(int size) {
+        return new BloomFilter(Math.max(properties.getExpectedRevocations(), 2L * size), properties.getFalsePositiveRate());
+    }
+}
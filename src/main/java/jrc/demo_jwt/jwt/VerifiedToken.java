@@ -0,0 +1,25 @@
+package jrc.demo_jwt.jwt;
+
+import java.time.Instant; // Instante en el tiempo (UTC)
+import java.util.List; // Lista inmutable de autoridades
+
+import org.springframework.security.core.GrantedAuthority; // Representa una autoridad otorgada a un usuario
+
+import lombok.Builder; // Proporciona un patrón de construcción para la clase
+import lombok.Value; // Genera una clase inmutable (campos final, getters, equals, hashCode y toString)
+
+// Resultado inmutable de verificar un JWT: la firma ya fue comprobada y los claims ya fueron leídos
+@Value
+@Builder
+public class VerifiedToken {
+    String id; // Claim "jti": identificador único del token (null en tokens emitidos sin él)
+    String username; // Claim "sub": nombre de usuario del token
+    Instant expiration; // Claim "exp": fecha de expiración del token
+    List<GrantedAuthority> authorities; // Autoridades incluidas en el token (vacía si el token no las incluye)
+    Integer userId; // Claim "uid": identificador del usuario (null si el token no lo incluye)
+
+    // Indica si el token ya expiró en el instante indicado
+    public boolean isExpired(Instant now) {
+        return expiration.isBefore(now);
+    }
+}
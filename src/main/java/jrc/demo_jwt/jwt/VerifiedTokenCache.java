@@ -0,0 +1,63 @@
+package jrc.demo_jwt.jwt;
+
+import java.time.Duration; // Duración entre dos instantes
+import java.time.Instant; // Instante en el tiempo (UTC)
+
+import org.springframework.stereotype.Component; // Marca esta clase como un componente de Spring
+
+import com.github.benmanes.caffeine.cache.Cache; // Caché concurrente de alto rendimiento
+import com.github.benmanes.caffeine.cache.Caffeine; // Constructor de cachés Caffeine
+import com.github.benmanes.caffeine.cache.Expiry; // Política de expiración por entrada
+import com.github.benmanes.caffeine.cache.stats.CacheStats; // Contadores de aciertos, fallos y desalojos
+
+import io.micrometer.core.instrument.MeterRegistry; // Registro de métricas
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics; // Publica las estadísticas de Caffeine como métricas
+
+// Caché acotada de tokens ya verificados: un token repetido evita la verificación de la firma y el análisis del JSON
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtService jwtService; // Servicio que verifica los tokens que no están en caché
+    private final Cache<String, VerifiedToken> cache; // Token -> claims verificados
+
+    public VerifiedTokenCache(JwtService jwtService, JwtProperties properties, MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(properties.getCache().getMaximumSize()) // Limita el número de entradas
+            .expireAfter(new TokenExpiry()) // Cada entrada se desaloja, como tarde, en el "exp" de su token
+            .recordStats() // Registra aciertos, fallos y desalojos
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "verified-tokens"); // cache.gets, cache.evictions, ...
+    }
+
+    // Devuelve el token verificado desde la caché o lo verifica (una sola vez aunque haya peticiones concurrentes)
+    public VerifiedToken verify(String token) {
+        // Las excepciones de verificación se propagan y no se cachean. La verificación solo usa CPU,
+        // así que ejecutarla dentro del bloqueo de la caché no fija hilos virtuales durante una espera
+        return cache.get(token, jwtService::verify);
+    }
+
+    // Contadores de aciertos, fallos y desalojos de la caché
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    // Expiración por entrada: el tiempo que le queda al token hasta su claim "exp"
+    private static final class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), verified.getExpiration()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return currentDuration; // Un token no cambia su expiración
+        }
+
+        @Override
+        public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return currentDuration; // Leer una entrada no prolonga su vida
+        }
+    }
+}
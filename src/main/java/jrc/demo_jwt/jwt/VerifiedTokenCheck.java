@@ -0,0 +1,10 @@
+package jrc.demo_jwt.jwt;
+
+// Comprobación adicional sobre un token ya verificado (por ejemplo, una lista de revocación).
+// JwtAuthenticationFilter aplica todos los beans de este tipo antes de autenticar la solicitud.
+@FunctionalInterface
+public interface VerifiedTokenCheck {
+
+    // Devuelve false para rechazar un token cuya firma y expiración ya son válidas
+    boolean isAllowed(VerifiedToken token);
+}
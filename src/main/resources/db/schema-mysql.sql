@@ -0,0 +1,38 @@
+-- Esquema de MySQL para el perfil "prod" (ddl-auto=validate: Hibernate comprueba el esquema, no lo modifica).
+-- Se ejecuta al arrancar y es idempotente: solo crea lo que falte en una base de datos vacía.
+
+CREATE TABLE IF NOT EXISTS user (
+    id integer NOT NULL,
+    country varchar(255),
+    firstname varchar(255),
+    lastname varchar(255),
+    password varchar(255),
+    username varchar(255) NOT NULL,
+    role enum ('ADMIN','USER'),
+    PRIMARY KEY (id),
+    UNIQUE KEY ux_user_username (username)
+) ENGINE=InnoDB;
+
+-- Generador de identificadores de usuario (MySQL no tiene secuencias; Hibernate reserva bloques de 50)
+CREATE TABLE IF NOT EXISTS user_seq (
+    next_val bigint
+) ENGINE=InnoDB;
+
+INSERT INTO user_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT * FROM user_seq);
+
+CREATE TABLE IF NOT EXISTS refresh_token (
+    expires_at datetime(6) NOT NULL,
+    id varchar(43) NOT NULL,
+    username varchar(255) NOT NULL,
+    PRIMARY KEY (id),
+    KEY idx_refresh_token_username (username)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS revoked_token (
+    expires_at datetime(6) NOT NULL,
+    revoked_at datetime(6) NOT NULL,
+    id varchar(36) NOT NULL,
+    PRIMARY KEY (id),
+    KEY idx_revoked_token_expires_at (expires_at),
+    KEY idx_revoked_token_revoked_at (revoked_at)
+) ENGINE=InnoDB;
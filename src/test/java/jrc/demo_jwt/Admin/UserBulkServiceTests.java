@@ -0,0 +1,83 @@
+package jrc.demo_jwt.Admin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jrc.demo_jwt.Admin.BulkRegistrationResult.Status;
+import jrc.demo_jwt.User.Role;
+import jrc.demo_jwt.User.User;
+import jrc.demo_jwt.User.UserRepository;
+
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:userbulk;MODE=MySQL;NON_KEYWORDS=USER;IGNORECASE=TRUE",
+	"spring.datasource.username=sa",
+	"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.hibernate.ddl-auto=create-drop",
+	"admin.bulk.chunk-size=2"
+})
+class UserBulkServiceTests {
+
+	@Autowired
+	private UserBulkService userBulkService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@BeforeEach
+	void setUp() {
+		userRepository.deleteAll();
+		userRepository.save(User.builder().username("existing").password("x").role(Role.USER).build());
+	}
+
+	@Test
+	void registersEachLineAndReportsPerRowResults() throws Exception {
+		String input = String.join("\n",
+			"{\"username\":\"ann\",\"password\":\"pw-ann\"}",
+			"{\"username\":\"existing\",\"password\":\"pw\"}",
+			"not json",
+			"{\"username\":\"ANN\",\"password\":\"again\"}",
+			"{\"username\":\"\",\"password\":\"pw\"}",
+			"{\"username\":\"ben\",\"password\":\"pw-ben\"}",
+			"{\"username\":\"Ben\",\"password\":\"pw-ben\"}");
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		userBulkService.register(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output, true);
+
+		List<BulkRegistrationResult> results = output.toString(StandardCharsets.UTF_8).lines()
+			.map(line -> {
+				try {
+					return objectMapper.readValue(line, BulkRegistrationResult.class);
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			})
+			.toList();
+
+		assertThat(results).extracting(BulkRegistrationResult::getStatus).containsExactlyInAnyOrder(
+			Status.CREATED, Status.DUPLICATE, Status.INVALID, Status.DUPLICATE, Status.INVALID, Status.CREATED, Status.DUPLICATE);
+		assertThat(results).filteredOn(result -> result.getStatus() == Status.CREATED)
+			.allSatisfy(result -> assertThat(result.getToken()).isNotBlank())
+			.extracting(BulkRegistrationResult::getLine).containsExactly(1L, 6L);
+		assertThat(passwordEncoder.matches("pw-ben", userRepository.findByUsername("ben").orElseThrow().getPassword())).isTrue();
+		assertThat(userRepository.count()).isEqualTo(3);
+	}
+
+}
@@ -0,0 +1,82 @@
+package jrc.demo_jwt.Admin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import jrc.demo_jwt.Auth.InvalidRefreshTokenException;
+import jrc.demo_jwt.Auth.RefreshTokenService;
+import jrc.demo_jwt.User.Role;
+import jrc.demo_jwt.User.User;
+import jrc.demo_jwt.User.UserRepository;
+
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:usertransfer;MODE=MySQL;NON_KEYWORDS=USER;IGNORECASE=TRUE",
+	"spring.datasource.username=sa",
+	"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.hibernate.ddl-auto=create-drop",
+	"admin.bulk.chunk-size=2"
+})
+class UserTransferServiceTests {
+
+	@Autowired
+	private UserTransferService userTransferService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private RefreshTokenService refreshTokenService;
+
+	@BeforeEach
+	void setUp() {
+		userRepository.deleteAll();
+		for (int i = 0; i < 5; i++) {
+			userRepository.save(User.builder().username("user" + i).password("hash" + i).country("ES").role(Role.USER).build());
+		}
+	}
+
+	@Test
+	void exportedUsersImportWithTheirHashes() throws Exception {
+		ByteArrayOutputStream exported = new ByteArrayOutputStream();
+		userTransferService.export(exported);
+		assertThat(exported.toString(StandardCharsets.UTF_8).lines()).hasSize(5);
+
+		userRepository.deleteAll();
+		userRepository.save(User.builder().username("user0").password("other").role(Role.USER).build());
+		String staleToken = refreshTokenService.issue("user3"); // De la cuenta anterior con el mismo nombre
+		String keptToken = refreshTokenService.issue("user0");
+		ImportSummary summary = userTransferService.importUsers(new ByteArrayInputStream(
+			(exported.toString(StandardCharsets.UTF_8) + "not json\n").getBytes(StandardCharsets.UTF_8)));
+
+		assertThat(summary).isEqualTo(new ImportSummary(4, 1, 1, 0));
+		assertThat(userRepository.findByUsername("user3").orElseThrow().getPassword()).isEqualTo("hash3");
+		assertThat(userRepository.findByUsername("user0").orElseThrow().getPassword()).isEqualTo("other");
+		assertThatThrownBy(() -> refreshTokenService.rotate(staleToken)).isInstanceOf(InvalidRefreshTokenException.class);
+		assertThat(refreshTokenService.rotate(keptToken).username()).isEqualTo("user0");
+	}
+
+	@Test
+	void rolledBackChunksAreReportedAsFailed() throws Exception {
+		String input = String.join("\n",
+			"{\"username\":\"" + "x".repeat(300) + "\",\"password\":\"h\"}",
+			"{\"username\":\"ann\",\"password\":\"h\"}",
+			"{\"username\":\"USER1\",\"password\":\"h\"}",
+			"{\"username\":\"ben\",\"password\":\"h\"}");
+
+		ImportSummary summary = userTransferService.importUsers(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+
+		assertThat(summary).isEqualTo(new ImportSummary(1, 1, 0, 2));
+		assertThat(userRepository.findByUsername("ann")).isEmpty();
+		assertThat(userRepository.findByUsername("ben")).isPresent();
+	}
+
+}
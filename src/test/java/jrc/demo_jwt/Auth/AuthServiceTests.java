@@ -0,0 +1,142 @@
+package jrc.demo_jwt.Auth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import jakarta.persistence.EntityManagerFactory;
+import jrc.demo_jwt.User.CachingUserDetailsService;
+import jrc.demo_jwt.User.Role;
+import jrc.demo_jwt.User.User;
+import jrc.demo_jwt.User.UserRepository;
+import jrc.demo_jwt.jwt.JwtService;
+import jrc.demo_jwt.jwt.TokenRevocationService;
+
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:authservice;MODE=MySQL;NON_KEYWORDS=USER",
+	"spring.datasource.username=sa",
+	"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.hibernate.ddl-auto=create-drop",
+	"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class AuthServiceTests {
+
+	@Autowired
+	private AuthService authService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private CachingUserDetailsService userDetailsService;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private TokenRevocationService tokenRevocationService;
+
+	@Autowired
+	private RefreshTokenService refreshTokenService;
+
+	@MockitoSpyBean
+	private PasswordEncoder passwordEncoder;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		userRepository.deleteAll();
+		// La caché de usuarios es un singleton del contexto: sin esto, un login de otra prueba evita la consulta
+		userDetailsService.evict("alice");
+		userDetailsService.evict("bob");
+		userRepository.save(User.builder()
+			.username("alice")
+			.password(passwordEncoder.encode("secret"))
+			.role(Role.USER)
+			.build());
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		clearInvocations(passwordEncoder);
+	}
+
+	@Test
+	void loginRunsOneQueryAndOnePasswordCheck() {
+		AuthResponse response = authService.login(new LoginRquest("alice", "secret"));
+
+		assertThat(response.getToken()).isNotBlank();
+		assertThat(response.getRefreshToken()).isNotBlank();
+		// Una consulta del usuario y la inserción del token de refresco (sin SELECT previo)
+		assertThat(statistics.getQueryExecutionCount()).isEqualTo(1);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+		verify(passwordEncoder, times(1)).matches(any(), any());
+	}
+
+	@Test
+	void loginRehashesLegacyPassword() {
+		// Hash sin prefijo de formato y con coste bajo, como los guardados antes de DelegatingPasswordEncoder
+		userRepository.save(User.builder()
+			.username("bob")
+			.password(new BCryptPasswordEncoder(4).encode("secret"))
+			.role(Role.USER)
+			.build());
+		String previousRefreshToken = refreshTokenService.issue("bob");
+
+		String refreshToken = authService.login(new LoginRquest("bob", "secret")).getRefreshToken();
+
+		String stored = userRepository.findByUsername("bob").orElseThrow().getPassword();
+		assertThat(stored).startsWith("{bcrypt}");
+		assertThat(passwordEncoder.matches("secret", stored)).isTrue();
+		assertThat(passwordEncoder.upgradeEncoding(stored)).isFalse();
+		// El cambio de hash revoca los tokens de refresco anteriores, no el que emite este login
+		assertThatThrownBy(() -> authService.refresh(new RefreshRequest(previousRefreshToken)))
+			.isInstanceOf(InvalidRefreshTokenException.class);
+		assertThat(authService.refresh(new RefreshRequest(refreshToken)).getToken()).isNotBlank();
+		// El siguiente login usa el hash nuevo
+		assertThat(authService.login(new LoginRquest("bob", "secret")).getToken()).isNotBlank();
+	}
+
+	@Test
+	void refreshRotatesTokenWithoutPasswordCheck() {
+		String refreshToken = authService.login(new LoginRquest("alice", "secret")).getRefreshToken();
+		clearInvocations(passwordEncoder);
+
+		AuthResponse response = authService.refresh(new RefreshRequest(refreshToken));
+
+		assertThat(response.getToken()).isNotBlank();
+		assertThat(response.getRefreshToken()).isNotBlank().isNotEqualTo(refreshToken);
+		verify(passwordEncoder, never()).matches(any(), any());
+		assertThatThrownBy(() -> authService.refresh(new RefreshRequest(refreshToken)))
+			.isInstanceOf(InvalidRefreshTokenException.class);
+	}
+
+	@Test
+	void logoutRevokesAccessAndRefreshTokens() {
+		AuthResponse login = authService.login(new LoginRquest("alice", "secret"));
+		assertThat(tokenRevocationService.isAllowed(jwtService.verify(login.getToken()))).isTrue();
+
+		authService.logout(login.getToken(), login.getRefreshToken());
+
+		assertThat(tokenRevocationService.isAllowed(jwtService.verify(login.getToken()))).isFalse();
+		assertThatThrownBy(() -> authService.refresh(new RefreshRequest(login.getRefreshToken())))
+			.isInstanceOf(InvalidRefreshTokenException.class);
+	}
+
+}
@@ -0,0 +1,43 @@
+package jrc.demo_jwt.Config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeHint;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.util.ClassUtils;
+
+import jrc.demo_jwt.Admin.UserRecord;
+import jrc.demo_jwt.User.User;
+
+class ApplicationRuntimeHintsTests {
+
+	private final RuntimeHints hints = new RuntimeHints();
+
+	ApplicationRuntimeHintsTests() {
+		new ApplicationRuntimeHints().registerHints(hints, getClass().getClassLoader());
+	}
+
+	@Test
+	void referencedClassesExist() {
+		// Los nombres de las clases de jjwt no se comprueban al compilar: una actualización que los cambie debe fallar aquí
+		assertThat(hints.reflection().typeHints().map(TypeHint::getType))
+			.allSatisfy(type -> assertThat(ClassUtils.isPresent(type.getName(), getClass().getClassLoader()))
+				.as(type.getName()).isTrue());
+	}
+
+	@Test
+	void coversJjwtEntitiesAndBindings() {
+		assertThat(RuntimeHintsPredicates.reflection().onType(ClassUtils.resolveClassName(
+			"io.jsonwebtoken.impl.DefaultJwtBuilder", null)).withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+			.accepts(hints);
+		assertThat(RuntimeHintsPredicates.resource().forResource("META-INF/services/io.jsonwebtoken.io.Serializer"))
+			.accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onType(User.class).withMemberCategory(MemberCategory.DECLARED_FIELDS))
+			.accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onType(UserRecord.class)).accepts(hints);
+	}
+
+}
@@ -0,0 +1,57 @@
+package jrc.demo_jwt.RateLimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTests {
+
+	private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	@Test
+	void allowsBurstThenRefillsAtTheConfiguredRate() {
+		RateLimiter limiter = new RateLimiter(3, 3 * SECOND, 100); // 3 de golpe, después 1 por segundo
+		long now = 1_000 * SECOND;
+
+		assertThat(limiter.tryAcquire("ip", now)).isZero();
+		assertThat(limiter.tryAcquire("ip", now)).isZero();
+		assertThat(limiter.tryAcquire("ip", now)).isZero();
+		assertThat(limiter.tryAcquire("ip", now)).isEqualTo(SECOND);
+		assertThat(limiter.tryAcquire("other", now)).isZero();
+
+		assertThat(limiter.tryAcquire("ip", now + SECOND)).isZero();
+		assertThat(limiter.tryAcquire("ip", now + SECOND)).isEqualTo(SECOND);
+	}
+
+	@Test
+	void evictsOnlyRefilledBuckets() {
+		RateLimiter limiter = new RateLimiter(2, 2 * SECOND, 100);
+		long now = 1_000 * SECOND;
+		limiter.tryAcquire("a", now);
+		limiter.tryAcquire("b", now + SECOND);
+
+		limiter.evictIdle(now + SECOND);
+
+		assertThat(limiter.size()).isEqualTo(1);
+		assertThat(RateLimiter.toRetryAfterSeconds(1)).isEqualTo(1);
+		assertThat(RateLimiter.toRetryAfterSeconds(SECOND + 1)).isEqualTo(2);
+	}
+
+	@Test
+	void boundsTheNumberOfKeys() {
+		RateLimiter limiter = new RateLimiter(2, 2 * SECOND, 10);
+		long now = 1_000 * SECOND;
+		for (int i = 0; i < 1_000; i++) {
+			limiter.tryAcquire("10.0." + (i / 256) + "." + (i % 256), now);
+		}
+
+		assertThat(limiter.size()).isLessThanOrEqualTo(10);
+		// Un cubo descartado se sustituye por uno nuevo: la clave sigue limitándose
+		assertThat(limiter.tryAcquire("10.0.0.0", now)).isZero();
+		assertThat(limiter.tryAcquire("10.0.0.0", now)).isZero();
+		assertThat(limiter.tryAcquire("10.0.0.0", now)).isEqualTo(SECOND);
+	}
+
+}
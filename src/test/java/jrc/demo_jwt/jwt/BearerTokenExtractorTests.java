@@ -0,0 +1,36 @@
+package jrc.demo_jwt.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class BearerTokenExtractorTests {
+
+	private static final int MAX = 64;
+
+	@Test
+	void extractsWellFormedTokens() {
+		assertThat(BearerTokenExtractor.extract("Bearer aGVhZA.cGF5bG9hZA.c2ln", MAX)).isEqualTo("aGVhZA.cGF5bG9hZA.c2ln");
+		assertThat(BearerTokenExtractor.extract("bearer  a-b.c_d.e", MAX)).isEqualTo("a-b.c_d.e");
+	}
+
+	@Test
+	void ignoresOtherSchemes() {
+		assertThat(BearerTokenExtractor.tokenStart(null, MAX)).isEqualTo(BearerTokenExtractor.NOT_BEARER);
+		assertThat(BearerTokenExtractor.tokenStart("Basic dXNlcjpwdw==", MAX)).isEqualTo(BearerTokenExtractor.NOT_BEARER);
+		assertThat(BearerTokenExtractor.tokenStart("Bearera.b.c", MAX)).isEqualTo(BearerTokenExtractor.NOT_BEARER);
+	}
+
+	@Test
+	void rejectsMalformedTokens() {
+		assertThat(BearerTokenExtractor.tokenStart("Bearer ", MAX)).isEqualTo(BearerTokenExtractor.MALFORMED);
+		assertThat(BearerTokenExtractor.tokenStart("Bearer a.b", MAX)).isEqualTo(BearerTokenExtractor.MALFORMED);
+		assertThat(BearerTokenExtractor.tokenStart("Bearer a.b.c.d", MAX)).isEqualTo(BearerTokenExtractor.MALFORMED);
+		assertThat(BearerTokenExtractor.tokenStart("Bearer a..c", MAX)).isEqualTo(BearerTokenExtractor.MALFORMED);
+		assertThat(BearerTokenExtractor.tokenStart("Bearer .b.c", MAX)).isEqualTo(BearerTokenExtractor.MALFORMED);
+		assertThat(BearerTokenExtractor.tokenStart("Bearer a.b.", MAX)).isEqualTo(BearerTokenExtractor.MALFORMED);
+		assertThat(BearerTokenExtractor.tokenStart("Bearer a+b.c.d=", MAX)).isEqualTo(BearerTokenExtractor.MALFORMED);
+		assertThat(BearerTokenExtractor.tokenStart("Bearer " + "a".repeat(MAX) + ".b.c", MAX)).isEqualTo(BearerTokenExtractor.MALFORMED);
+	}
+
+}
@@ -0,0 +1,158 @@
+package jrc.demo_jwt.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jrc.demo_jwt.User.Role;
+import jrc.demo_jwt.User.User;
+
+class JwtServiceTests {
+
+	private final User alice = User.builder().id(42).username("alice").password("x").role(Role.USER).build();
+
+	@Test
+	void issuesCompactHs256Tokens() {
+		JwtProperties properties = new JwtProperties();
+		String token = jwtService(properties).getToken(alice);
+
+		// Cabecera {"alg":"HS256"} (20) + payload de 80 bytes (107) + HMAC-SHA256 (43) y dos puntos
+		assertThat(token).hasSize(172);
+		assertThat(decode(token.split("\\.")[0])).isEqualTo("{\"alg\":\"HS256\"}");
+		assertThat(decode(token.split("\\.")[1])).matches(
+			"\\{\"jti\":\"[A-Za-z0-9_-]{22}\",\"sub\":\"alice\",\"iat\":\\d{10},\"exp\":\\d{10}}");
+		// El mismo token emitido con Jwts.builder(), un mapa de claims y un UUID como "jti"
+		assertThat(legacyToken(properties, false).length() - token.length()).isGreaterThanOrEqualTo(19);
+
+		VerifiedToken verified = jwtService(properties).verify(token);
+		assertThat(verified.getUsername()).isEqualTo("alice");
+		assertThat(verified.getId()).hasSize(22);
+		assertThat(verified.getAuthorities()).isEmpty();
+		assertThat(verified.getUserId()).isNull();
+	}
+
+	@Test
+	void writesOptionalRoleAndUserIdClaims() {
+		JwtProperties properties = new JwtProperties();
+		properties.setStateless(true);
+		properties.setUserIdClaim(true);
+		JwtService jwtService = jwtService(properties);
+		String token = jwtService.getToken(alice);
+
+		// Payload de 104 bytes: aun con "uid", más corto que el anterior con "authorities" y un UUID (117 bytes)
+		assertThat(decode(token.split("\\.")[1])).endsWith(",\"rol\":[\"USER\"],\"uid\":42}");
+		assertThat(token).hasSize(204);
+		assertThat(legacyToken(properties, true).length() - token.length()).isGreaterThanOrEqualTo(17);
+
+		VerifiedToken verified = jwtService.verify(token);
+		assertThat(verified.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("USER");
+		assertThat(verified.getUserId()).isEqualTo(42);
+	}
+
+	@Test
+	void acceptsTokensWithLegacyAuthoritiesClaim() {
+		JwtProperties properties = new JwtProperties();
+		VerifiedToken verified = jwtService(properties).verify(legacyToken(properties, true));
+
+		assertThat(verified.getUsername()).isEqualTo("alice");
+		assertThat(verified.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("USER");
+	}
+
+	@Test
+	void signsWithAsymmetricAlgorithms() {
+		for (String algorithm : List.of("ES256", "EdDSA")) {
+			JwtProperties properties = new JwtProperties();
+			properties.setAlgorithm(algorithm);
+			properties.setGeneratedKeys(true);
+			JwtService jwtService = jwtService(properties);
+			String token = jwtService.getToken(alice);
+
+			assertThat(decode(token.split("\\.")[0])).startsWith("{\"alg\":\"" + algorithm + "\",\"kid\":\"");
+			assertThat(token.split("\\.")[2]).hasSize(86); // 64 bytes: R || S (ES256) o firma Ed25519
+			assertThat(jwtService.verify(token).getUsername()).isEqualTo("alice");
+		}
+	}
+
+	@Test
+	void escapesSubject() {
+		JwtProperties properties = new JwtProperties();
+		JwtService jwtService = jwtService(properties);
+		String username = "a\"b\\c\u0001ñ€";
+		String token = jwtService.getToken(User.builder().username(username).password("x").role(Role.USER).build());
+
+		assertThat(jwtService.verify(token).getUsername()).isEqualTo(username);
+	}
+
+	@Test
+	void rejectsExpiredAndUnknownKeyTokensWithoutStackTraces() {
+		JwtProperties properties = new JwtProperties();
+		properties.setExpiration(Duration.ofMinutes(-1));
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		JwtService jwtService = new JwtService(properties, new JwtKeyRing(properties), registry);
+		String token = jwtService.getToken(alice);
+		String forged = token.substring(0, token.lastIndexOf('.') + 1) + "AAAA";
+
+		// El "exp" vencido decide antes de comprobar la firma
+		Throwable expired = catchThrowable(() -> jwtService.verify(forged));
+		assertThat(expired).isInstanceOf(ExpiredTokenException.class);
+		assertThat(expired.getStackTrace()).isEmpty();
+		assertThat(catchThrowable(() -> jwtService.verify(forged))).isNotSameAs(expired); // Sin estado compartido
+		assertThat(registry.get("jwt.verify.failures").tag("reason", "expired").counter().count()).isEqualTo(2);
+
+		JwtProperties es256 = new JwtProperties();
+		es256.setAlgorithm("ES256");
+		es256.setGeneratedKeys(true); // Cada anillo genera su propia clave
+		Throwable unknownKey = catchThrowable(() -> jwtService(es256).verify(jwtService(es256).getToken(alice)));
+		assertThat(unknownKey).isInstanceOf(SignatureException.class);
+		assertThat(unknownKey.getStackTrace()).isEmpty();
+	}
+
+	@Test
+	void rejectsSignedTokensWithoutExpiration() {
+		JwtProperties properties = new JwtProperties();
+		String token = Jwts.builder()
+			.subject(alice.getUsername())
+			.signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(properties.getSecret())), Jwts.SIG.HS256)
+			.compact();
+
+		assertThat(catchThrowable(() -> jwtService(properties).verify(token))).isInstanceOf(MalformedJwtException.class);
+	}
+
+	private static JwtService jwtService(JwtProperties properties) {
+		return new JwtService(properties, new JwtKeyRing(properties), new SimpleMeterRegistry());
+	}
+
+	private static String decode(String segment) {
+		return new String(Base64.getUrlDecoder().decode(segment), StandardCharsets.UTF_8);
+	}
+
+	// Token con la emisión anterior: claims en un mapa, "jti" UUID y claim "authorities"
+	private String legacyToken(JwtProperties properties, boolean withAuthorities) {
+		long now = System.currentTimeMillis();
+		return Jwts.builder()
+			.claims(withAuthorities ? Map.of("authorities", List.of("USER")) : Map.of())
+			.id(UUID.randomUUID().toString())
+			.subject(alice.getUsername())
+			.issuedAt(new Date(now))
+			.expiration(new Date(now + properties.getExpiration().toMillis()))
+			.signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(properties.getSecret())), Jwts.SIG.HS256)
+			.compact();
+	}
+
+}